@@ -0,0 +1,67 @@
+// 顧客参照APIの負荷試験（k6）。run-matrix.sh から実行する。
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=2000 -e DURATION=2m loadtest/customer-read.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+// 503 はプールの空き待ちタイムアウト（設計どおりの制限）なので、エラーとは別に数える
+const unavailable = new Counter('unavailable_503');
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CUSTOMERS = Number(__ENV.CUSTOMERS || 10000);
+const BATCH = 1000;
+
+export const options = {
+  scenarios: {
+    read: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 2000),
+      duration: __ENV.DURATION || '2m',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function code(i) {
+  return 'LT' + String(i).padStart(6, '0');
+}
+
+// 試験データを一括登録APIで投入する（登録済みのコードは DUPLICATE としてスキップされる）
+export function setup() {
+  for (let from = 0; from < CUSTOMERS; from += BATCH) {
+    const customers = [];
+    for (let i = from; i < Math.min(from + BATCH, CUSTOMERS); i++) {
+      customers.push({ code: code(i), companyName: 'LoadTest ' + i, creditLimit: 100000 });
+    }
+    const res = http.post(`${BASE_URL}/api/v1/customers/batch`, JSON.stringify({ customers }), {
+      headers: { 'Content-Type': 'application/json' },
+    });
+    check(res, { 'seed 200': (r) => r.status === 200 });
+  }
+}
+
+// 単一取得はキャッシュに載ると DB を読まなくなるので、DB を読む一覧・一括照会も混ぜる
+export default function () {
+  const r = Math.random();
+  let res;
+  if (r < 0.6) {
+    res = http.get(`${BASE_URL}/api/v1/customers/${code(Math.floor(Math.random() * CUSTOMERS))}`, {
+      tags: { name: 'GET /customers/{code}' },
+    });
+  } else if (r < 0.9) {
+    res = http.get(`${BASE_URL}/api/v1/customers?size=50`, { tags: { name: 'GET /customers' } });
+  } else {
+    const codes = [];
+    for (let i = 0; i < 100; i++) {
+      codes.push(code(Math.floor(Math.random() * CUSTOMERS)));
+    }
+    res = http.post(`${BASE_URL}/api/v1/customers/lookup`, JSON.stringify({ codes }), {
+      headers: { 'Content-Type': 'application/json' },
+      tags: { name: 'POST /customers/lookup' },
+    });
+  }
+  if (res.status === 503) {
+    unavailable.add(1);
+  }
+  check(res, { 'status 200 or 503': (r) => r.status === 200 || r.status === 503 });
+}
@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# SQLログの出し方で参照APIのレイテンシがどう変わるかを比べる。
+#
+#   ./gradlew bootJar && loadtest/logging-compare.sh
+#
+#   sync-debug: sql-debug プロファイル（全SQLを整形してDEBUG、同期のコンソール出力。以前の既定）
+#   async     : 既定（SQLは遅いものだけ1行で、非同期のコンソール出力）
+#
+# 前提: docker compose up -d で PostgreSQL が起動していること、k6 がインストールされていること。
+# 環境変数: VUS（同時ユーザー数、既定200）、DURATION（既定1m）
+# アプリの標準出力はファイルに書く（端末に出すより書き込みは軽いので、同期側の差は実運用より小さめに出る）。
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -1)
+OUT=build/loadtest
+PORT=${PORT:-8080}
+BASE_URL=http://localhost:${PORT}
+mkdir -p "$OUT"
+
+# 途中で失敗しても起動中のアプリを残さない（app は run のたびに置き換わる）
+app=
+trap '[ -n "$app" ] && kill "$app" 2>/dev/null || true' EXIT
+
+run() {
+  local name=$1
+  shift
+  echo "== ${name}"
+  java -jar "$JAR" --server.port="$PORT" --wataerp.admission.enabled=false \
+    --wataerp.concurrency-limit.enabled=false "$@" >"$OUT/logging-${name}.app.log" 2>&1 &
+  app=$!
+
+  until curl -fs "$BASE_URL/actuator/health" >/dev/null; do sleep 1; done
+
+  k6 run --quiet \
+    -e BASE_URL="$BASE_URL" -e VUS="${VUS:-200}" -e DURATION="${DURATION:-1m}" \
+    --summary-export "$OUT/logging-${name}.k6.json" \
+    loadtest/customer-read.js
+
+  kill "$app"
+  wait "$app" 2>/dev/null || true
+  app=
+}
+
+run sync-debug --spring.profiles.active=sql-debug
+run async
+
+for name in sync-debug async; do
+  f="$OUT/logging-${name}.k6.json"
+  printf '%-10s ' "$name"
+  if command -v jq >/dev/null; then
+    jq -r '.metrics.http_req_duration | "p50=\(.["p(50)"])ms p95=\(.["p(95)"])ms p99=\(.["p(99)"])ms"' "$f" |
+      tr '\n' ' '
+    jq -r '.metrics.http_reqs | "rate=\(.rate)/s"' "$f"
+  else
+    echo "$f"
+  fi
+  printf '%-10s log=%s bytes\n' "" "$(wc -c <"$OUT/logging-${name}.app.log")"
+done | tee "$OUT/logging-compare.txt"
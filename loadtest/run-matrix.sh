@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# プラットフォームスレッド／仮想スレッド × Hikari プールサイズ の組み合わせで負荷試験を流し、結果を build/loadtest に保存する。
+#
+#   ./gradlew bootJar && loadtest/run-matrix.sh
+#
+# 前提: docker compose up -d で PostgreSQL が起動していること、k6 がインストールされていること。
+# 環境変数: VUS（同時ユーザー数、既定2000）、DURATION（既定2m）、POOL_SIZES（既定 "10 20 50"）
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -1)
+OUT=build/loadtest
+PORT=${PORT:-8080}
+BASE_URL=http://localhost:${PORT}
+mkdir -p "$OUT"
+
+# 途中で失敗しても起動中のアプリを残さない（app はループ内で起動するたびに置き換わる）
+app=
+trap '[ -n "$app" ] && kill "$app" 2>/dev/null || true' EXIT
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  for pool in ${POOL_SIZES:-10 20 50}; do
+    name="${mode}-pool${pool}"
+    echo "== ${name}"
+    java -jar "$JAR" \
+      --server.port="$PORT" \
+      --spring.threads.virtual.enabled="$virtual" \
+      --spring.datasource.hikari.maximum-pool-size="$pool" \
+      --spring.datasource.hikari.minimum-idle="$pool" \
+      --wataerp.admission.enabled=false \
+      --wataerp.concurrency-limit.enabled=false \
+      --logging.level.org.hibernate.SQL=INFO \
+      --logging.level.org.springframework.jdbc=INFO \
+      >"$OUT/${name}.app.log" 2>&1 &
+    app=$!
+
+    until curl -fs "$BASE_URL/actuator/health" >/dev/null; do sleep 1; done
+
+    k6 run --quiet \
+      -e BASE_URL="$BASE_URL" -e VUS="${VUS:-2000}" -e DURATION="${DURATION:-2m}" \
+      --summary-export "$OUT/${name}.k6.json" \
+      loadtest/customer-read.js
+
+    # プール待ちの状況（待ち時間の分布と最大待ち数）
+    for metric in hikaricp.connections.acquire hikaricp.connections.pending hikaricp.connections.timeout; do
+      curl -fs "$BASE_URL/actuator/metrics/${metric}" >"$OUT/${name}.${metric}.json" || true
+    done
+
+    kill "$app"
+    wait "$app" 2>/dev/null || true
+    app=
+  done
+done
+
+echo "結果: $OUT/*.k6.json（http_req_duration の p95/p99、http_reqs の rate）と hikaricp.*.json を比較する"
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# 主キーを UUIDv4（ランダム）と UUIDv7（時刻順）で採番したときの、INSERT 時間・WAL量・主キー索引のサイズを比べる。
+#
+#   loadtest/uuid-pk-compare.sh
+#
+# 前提: docker compose up -d で PostgreSQL が起動していること（psql はコンテナ内のものを使う）。
+# 環境変数: ROWS（件数、既定3000000）、BATCH（1トランザクションの行数、既定1000）
+#
+# UUIDv7 は SQL で UuidV7 と同じ並び（先頭48ビットがミリ秒）を作る。アプリと同じく BATCH 行ごとにコミットする。
+# customer_master と同じ列の表を uuid_bench スキーマに作り、終わったら消す（本体の表には触らない）。
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+ROWS=${ROWS:-3000000}
+BATCH=${BATCH:-1000}
+OUT=build/loadtest
+mkdir -p "$OUT"
+psql() {
+  docker exec -i wataerp-postgres psql -U postgres -d wataerp -v ON_ERROR_STOP=1 -qAt "$@"
+}
+
+psql <<'SQL'
+DROP SCHEMA IF EXISTS uuid_bench CASCADE;
+CREATE SCHEMA uuid_bench;
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+
+CREATE FUNCTION uuid_bench.uuid_v7() RETURNS uuid LANGUAGE sql VOLATILE AS $$
+  SELECT encode(
+    set_bit(set_bit(
+      overlay(uuid_send(gen_random_uuid())
+        placing substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+        FROM 1 FOR 6),
+      52, 1), 53, 1),
+    'hex')::uuid
+$$;
+
+CREATE PROCEDURE uuid_bench.fill(tbl text, gen text, total int, batch int) LANGUAGE plpgsql AS $$
+BEGIN
+  FOR i IN 0 .. (total - 1) / batch LOOP
+    EXECUTE format(
+      'INSERT INTO uuid_bench.%I (id, code, company_name, credit_limit)'
+      ' SELECT %s, ''C'' || g, ''株式会社サンプル'' || g, 0 FROM generate_series(%s, %s) g',
+      tbl, gen, i * batch + 1, least((i + 1) * batch, total));
+    COMMIT;
+  END LOOP;
+END
+$$;
+
+CREATE TABLE uuid_bench.v4 (LIKE public.customer_master INCLUDING DEFAULTS, PRIMARY KEY (id));
+CREATE TABLE uuid_bench.v7 (LIKE public.customer_master INCLUDING DEFAULTS, PRIMARY KEY (id));
+SQL
+
+report="$OUT/uuid-pk-compare.txt"
+printf '%-4s %10s %12s %12s %10s %10s\n' kind rows elapsed_ms wal_mb pkey_mb leaf_dens | tee "$report"
+for kind in v4 v7; do
+  gen=gen_random_uuid\(\)
+  [ "$kind" = v7 ] && gen=uuid_bench.uuid_v7\(\)
+  psql -c "CHECKPOINT"
+  lsn=$(psql -c "SELECT pg_current_wal_lsn()")
+  start=$(date +%s%N)
+  psql -c "CALL uuid_bench.fill('$kind', '$gen', $ROWS, $BATCH)"
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  stats=$(psql -F ' ' -c "
+    SELECT round(pg_wal_lsn_diff(pg_current_wal_lsn(), '$lsn') / 1048576.0, 1),
+           round(pg_relation_size('uuid_bench.${kind}_pkey') / 1048576.0, 1),
+           (pgstatindex('uuid_bench.${kind}_pkey')).avg_leaf_density")
+  read -r wal pkey density <<<"$stats"
+  printf '%-4s %10d %12d %12s %10s %10s\n' "$kind" "$ROWS" "$elapsed" "$wal" "$pkey" "$density" \
+    | tee -a "$report"
+done
+
+psql -c "DROP SCHEMA uuid_bench CASCADE"
+echo "結果: $report（v4 は索引全体へのランダム挿入でページ分割が増え、WAL量・索引サイズが大きく、葉の充填率が低くなる）"
@@ -0,0 +1,78 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.shared.error.ApiError;
+import com.example.wataerp.shared.error.ApiExceptionHandler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * エラーレスポンス組み立て（{@code ApiExceptionHandler.build}）のコスト。build は private なので、よく通る
+ * ResponseStatusException（404 など）とバリデーションエラーのハンドラ経由で測る。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiExceptionHandlerBenchmark {
+
+  private ApiExceptionHandler handler;
+  private MockHttpServletRequest request;
+  private ResponseStatusException notFound;
+  private MethodArgumentNotValidException notValid;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    handler = new ApiExceptionHandler();
+    request = new MockHttpServletRequest("GET", "/api/v1/customers/C999");
+    notFound = new ResponseStatusException(HttpStatus.NOT_FOUND, "以下の顧客コードが見つかりません: C999");
+
+    BeanPropertyBindingResult binding = new BeanPropertyBindingResult(new Object(), "request");
+    binding.addError(new FieldError("request", "code", "C 001", false, null, null, "形式が不正です"));
+    binding.addError(new FieldError("request", "companyName", null, false, null, null, "必須です"));
+    MethodParameter parameter =
+        new MethodParameter(
+            ApiExceptionHandlerBenchmark.class.getDeclaredMethod("target", Object.class), 0);
+    notValid = new MethodArgumentNotValidException(parameter, binding);
+
+    MDC.put("correlationId", "0f8fad5b-d9cb-469f-a165-70867728950e");
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Benchmark
+  public ResponseEntity<ApiError> responseStatus() {
+    return handler.handleResponseStatus(notFound, request);
+  }
+
+  @Benchmark
+  public ResponseEntity<ApiError> methodArgumentNotValid() {
+    return handler.handleMethodArgumentNotValid(notValid, request);
+  }
+
+  @SuppressWarnings("unused")
+  private void target(Object request) {}
+}
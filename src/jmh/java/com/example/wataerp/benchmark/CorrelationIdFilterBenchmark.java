@@ -0,0 +1,65 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.shared.filter.CorrelationIdFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * 全リクエストが通る {@link CorrelationIdFilter#doFilter} のコスト。ヘッダー無し（IDを採番する）と、
+ * 上流から受け取ったIDをそのまま使う場合を比べる。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorrelationIdFilterBenchmark {
+
+  private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+  // 後続処理のコストを混ぜないよう何もしないチェーンにする（MockFilterChain は1回しか呼べない）
+  private final FilterChain chain = (req, res) -> {};
+
+  private MockHttpServletRequest withoutHeader;
+  private MockHttpServletRequest withHeader;
+  private MockHttpServletResponse response;
+
+  @Setup
+  public void setup() {
+    withoutHeader = new MockHttpServletRequest("GET", "/api/v1/customers/C001");
+    withHeader = new MockHttpServletRequest("GET", "/api/v1/customers/C001");
+    withHeader.addHeader(CorrelationIdFilter.HEADER_NAME, "0f8fad5b-d9cb-469f-a165-70867728950e");
+    response = new MockHttpServletResponse();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse generateId() throws Exception {
+    return doFilter(withoutHeader);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse propagateId() throws Exception {
+    return doFilter(withHeader);
+  }
+
+  private MockHttpServletResponse doFilter(MockHttpServletRequest request)
+      throws IOException, ServletException {
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
@@ -0,0 +1,92 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.entity.Customer;
+import com.example.wataerp.domain.customer.mapper.CustomerMapper;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** エンティティ→レスポンスの詰め替えと、{@link Customer#setCreditLimit} の丸め処理のコスト */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+  @State(Scope.Thread)
+  public static class Customers {
+    /** toResponseList に渡す件数（一覧の既定ページサイズと上限） */
+    @Param({"50", "500"})
+    int size;
+
+    Customer customer;
+    List<Customer> list;
+
+    @Setup
+    public void setup() {
+      customer = customer(0);
+      list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add(customer(i));
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class CreditLimit {
+    /** "100.00" は既にscale=2、"100" は setScale で作り直しになる */
+    @Param({"100.00", "100"})
+    String value;
+
+    Customer customer;
+    BigDecimal amount;
+
+    @Setup
+    public void setup() {
+      customer = customer(0);
+      amount = new BigDecimal(value);
+    }
+  }
+
+  @Benchmark
+  public CustomerResponse toResponse(Customers state) {
+    return CustomerMapper.toResponse(state.customer);
+  }
+
+  @Benchmark
+  public List<CustomerResponse> toResponseList(Customers state) {
+    return CustomerMapper.toResponseList(state.list);
+  }
+
+  @Benchmark
+  public Customer setCreditLimit(CreditLimit state) {
+    state.customer.setCreditLimit(state.amount);
+    return state.customer;
+  }
+
+  private static Customer customer(int i) {
+    Customer customer = new Customer();
+    customer.setId(UUID.randomUUID());
+    customer.setCode(String.format("C%06d", i));
+    customer.setCompanyName("株式会社サンプル" + i);
+    customer.setBillingAddress("東京都千代田区" + i);
+    customer.setTaxCode("T" + i);
+    customer.setCreditLimit(new BigDecimal("1000000.00"));
+    return customer;
+  }
+}
@@ -0,0 +1,144 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.DemoApplication;
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.entity.Customer;
+import com.example.wataerp.domain.customer.mapper.CustomerMapper;
+import com.example.wataerp.domain.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 顧客参照の読み込み経路の比較。エンティティをロードして {@link CustomerMapper} で詰め替える従来経路と、JPQLのコンストラクタ式で
+ * {@link CustomerResponse} に直接射影する経路を、同じH2（インメモリ）上で測る。
+ *
+ * <p>DBの往復は両経路で同じなので、差はエンティティ生成・永続化コンテキスト登録・詰め替えの分になる。{@code -prof gc} の
+ * {@code gc.alloc.rate.norm} で1操作あたりの割り当てバイト数を比較する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerReadPathBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  /** 1回の取得件数（by-codes のコード数・一覧のページサイズ） */
+  @Param({"1", "50", "500"})
+  int size;
+
+  private ConfigurableApplicationContext context;
+  private CustomerRepository repo;
+  private EntityManager entityManager;
+  private TransactionTemplate readOnly;
+  private List<String> codes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context =
+        new SpringApplicationBuilder(DemoApplication.class)
+            .web(WebApplicationType.NONE)
+            // src/test/resources は jmh のクラスパスに入らないので、H2 の設定はここで上書きする
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.flyway.enabled=false",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN")
+            .run();
+    repo = context.getBean(CustomerRepository.class);
+    entityManager =
+        SharedEntityManagerCreator.createSharedEntityManager(
+            context.getBean(EntityManagerFactory.class));
+    readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    readOnly.setReadOnly(true);
+
+    List<Customer> customers = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      Customer customer = new Customer();
+      customer.setId(UUID.randomUUID());
+      customer.setCode(String.format("C%06d", i));
+      customer.setCompanyName("株式会社サンプル" + i);
+      customer.setBillingAddress("東京都千代田区" + i);
+      customer.setTaxCode("T" + i);
+      customer.setCreditLimit(new BigDecimal("1000000.00"));
+      customers.add(customer);
+    }
+    repo.saveAllAndFlush(customers);
+
+    // ページの途中から取るコード（連続しない値にしてインデックスの範囲走査に寄らないようにする）
+    codes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      codes.add(String.format("C%06d", (i * 17) % ROWS));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<CustomerResponse> byCodes_entity() {
+    return readOnly.execute(s -> CustomerMapper.toResponseList(repo.findByCodeIn(codes)));
+  }
+
+  // 本番の経路は findByCodes（JDBC）なので、比較用の射影クエリはリポジトリに置かずここで組み立てる
+  @Benchmark
+  public List<CustomerResponse> byCodes_projection() {
+    return readOnly.execute(
+        s ->
+            entityManager
+                .createQuery(
+                    CustomerRepository.RESPONSE_SELECT + " where c.code in :codes",
+                    CustomerResponse.class)
+                .setParameter("codes", codes)
+                .getResultList());
+  }
+
+  @Benchmark
+  public List<CustomerResponse> page_entity() {
+    return readOnly.execute(
+        s ->
+            CustomerMapper.toResponseList(
+                entityManager
+                    .createQuery("select c from Customer c order by c.code", Customer.class)
+                    .setMaxResults(size)
+                    .getResultList()));
+  }
+
+  @Benchmark
+  public List<CustomerResponse> page_projection() {
+    return readOnly.execute(s -> repo.findResponsePage(Limit.of(size)));
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshot;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CustomerSnapshot} の読み取りコストと、1顧客あたりのヒープ使用量。
+ *
+ * <p>ヒープ使用量はセットアップ時に GC 前後の使用量の差から概算して標準出力に出す（JMHの結果には含まれない）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class CustomerSnapshotBenchmark {
+
+  /** 顧客件数 */
+  @Param({"100000", "1000000"})
+  int rows;
+
+  CustomerSnapshot snapshot;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    long before = usedHeap();
+    CustomerSnapshot.Builder builder = CustomerSnapshot.builder(1L);
+    for (int i = 0; i < rows; i++) {
+      builder.add(customer(i));
+    }
+    snapshot = builder.build();
+    long after = usedHeap();
+    System.out.printf(
+        "%n[snapshot] rows=%d heap=%,d bytes (%.1f bytes/customer)%n",
+        rows, after - before, (double) (after - before) / rows);
+  }
+
+  @Benchmark
+  public CustomerResponse get() {
+    return snapshot.get(code(ThreadLocalRandom.current().nextInt(rows)));
+  }
+
+  @Benchmark
+  public List<CustomerResponse> pageAfter() {
+    return snapshot.pageAfter(code(ThreadLocalRandom.current().nextInt(rows)), 50).orElseThrow();
+  }
+
+  @Benchmark
+  public List<CustomerResponse> findByCodePrefix() {
+    return snapshot.findByCodePrefix(
+        "C" + String.format("%05d", ThreadLocalRandom.current().nextInt(rows / 100)), 10);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static String code(int i) {
+    return String.format("C%07d", i);
+  }
+
+  // 住所・税区分は件数に比べて種類が少ない（実データに寄せる）
+  private static CustomerResponse customer(int i) {
+    return new CustomerResponse(
+        code(i),
+        "株式会社サンプル" + i,
+        "東京都千代田区" + (i % 500),
+        "T" + (i % 10),
+        new BigDecimal("1000000.00"),
+        true,
+        0L);
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.shared.id.Ulid;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 相関IDの採番1回のコスト（以前の {@code UUID.randomUUID().toString()} との比較）。
+ *
+ * <p>リクエストごとに各スレッドが同時に採番するので、多スレッドでの値を主に見る。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UlidBenchmark {
+
+  @Benchmark
+  public String randomUuid() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Benchmark
+  public String ulid() {
+    return Ulid.next();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String randomUuidContended() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String ulidContended() {
+    return Ulid.next();
+  }
+}
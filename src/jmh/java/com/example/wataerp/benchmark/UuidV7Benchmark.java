@@ -0,0 +1,49 @@
+package com.example.wataerp.benchmark;
+
+import com.example.wataerp.shared.id.UuidV7;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 採番1回のコスト（{@link UUID#randomUUID()} との比較）。
+ *
+ * <p>DB側の差（INSERT 時間・WAL量・主キー索引のサイズ）は {@code loadtest/uuid-pk-compare.sh} で測る。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidV7Benchmark {
+
+  @Benchmark
+  public UUID randomUuid() {
+    return UUID.randomUUID();
+  }
+
+  @Benchmark
+  public UUID uuidV7() {
+    return UuidV7.next();
+  }
+
+  // 一括登録・取り込みが並行したときのカウンタの CAS 競合
+  @Benchmark
+  @Threads(8)
+  public UUID randomUuidContended() {
+    return UUID.randomUUID();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public UUID uuidV7Contended() {
+    return UuidV7.next();
+  }
+}
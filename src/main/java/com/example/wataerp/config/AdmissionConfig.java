@@ -0,0 +1,33 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.shared.filter.AdmissionControlFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * APIの受け付け制御（クライアントごとの流量制限と、分類ごとの同時実行数の上限）。
+ *
+ * <p>認証済みのユーザーでクライアントを見分けるため Spring Security の内側に置き、コントローラより前で断る（429 の本文の
+ * correlationId は、より外側の CorrelationIdFilter が入れたもの）。
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "wataerp.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionConfig {
+
+  @Bean
+  public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+      AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    FilterRegistrationBean<AdmissionControlFilter> registration =
+        new FilterRegistrationBean<>(
+            new AdmissionControlFilter(properties, objectMapper, meterRegistry));
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+    return registration;
+  }
+}
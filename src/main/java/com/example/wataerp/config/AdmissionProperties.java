@@ -0,0 +1,93 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.shared.admission.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** APIの流量制限・同時実行数の設定値（application.yml の wataerp.admission.*） */
+@ConfigurationProperties(prefix = "wataerp.admission")
+public class AdmissionProperties {
+
+  // false にするとフィルタを登録しない（負荷試験で上限を外したいときなど）
+  private boolean enabled = true;
+
+  private final Limit list = new Limit(10, 20, 16);
+  private final Limit export = new Limit(1, 2, 2);
+  private final Limit single = new Limit(200, 400, 64);
+  private final Limit write = new Limit(20, 40, 8);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Limit getList() {
+    return list;
+  }
+
+  public Limit getExport() {
+    return export;
+  }
+
+  public Limit getSingle() {
+    return single;
+  }
+
+  public Limit getWrite() {
+    return write;
+  }
+
+  public Limit limitOf(EndpointClass endpointClass) {
+    return switch (endpointClass) {
+      case LIST -> list;
+      case EXPORT -> export;
+      case SINGLE -> single;
+      case WRITE -> write;
+    };
+  }
+
+  public static class Limit {
+    // 1クライアントあたり毎秒の許可数
+    private double rate;
+
+    // 1クライアントが続けて送れる数（バケットの大きさ）
+    private int burst;
+
+    // この分類の同時実行数の上限（全クライアント合計）。超えた分は待たせずに 429
+    private int concurrency;
+
+    public Limit() {}
+
+    public Limit(double rate, int burst, int concurrency) {
+      this.rate = rate;
+      this.burst = burst;
+      this.concurrency = concurrency;
+    }
+
+    public double getRate() {
+      return rate;
+    }
+
+    public void setRate(double rate) {
+      this.rate = rate;
+    }
+
+    public int getBurst() {
+      return burst;
+    }
+
+    public void setBurst(int burst) {
+      this.burst = burst;
+    }
+
+    public int getConcurrency() {
+      return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+      this.concurrency = concurrency;
+    }
+  }
+}
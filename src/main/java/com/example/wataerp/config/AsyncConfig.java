@@ -0,0 +1,24 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.shared.concurrent.MdcTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * {@code @Async} と Spring MVC の非同期処理（StreamingResponseBody）の実行設定。
+ *
+ * <p>どちらも Spring Boot の applicationTaskExecutor で動く。{@code spring.threads.virtual.enabled=true}
+ * のときは1タスク1仮想スレッドになり、同時実行数はスレッド数ではなく Hikari のプールサイズで決まる。
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+  // applicationTaskExecutor に自動で適用される
+  @Bean
+  public TaskDecorator mdcTaskDecorator() {
+    return new MdcTaskDecorator();
+  }
+}
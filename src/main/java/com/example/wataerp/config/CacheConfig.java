@@ -0,0 +1,66 @@
+package com.example.wataerp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * キャッシュ設定。
+ *
+ * <p>実体は Caffeine。cache-names に列挙したキャッシュは起動時にここの {@link Caffeine} で生成され、Micrometer の
+ * cache.gets / cache.evictions / cache.size に自動で登録される。spring.cache.caffeine.spec を指定するとそちらが優先され、
+ * ネガティブキャッシュの短いTTLが効かなくなるので指定しない。
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  // 顧客コード → CustomerResponse（存在しないコードは null をキャッシュ）
+  public static final String CUSTOMERS = "customers";
+
+  @Bean
+  public Caffeine<Object, Object> caffeine(CustomerProperties properties) {
+    CustomerProperties.Cache cache = properties.getCache();
+    return Caffeine.newBuilder()
+        .maximumSize(cache.getMaximumSize())
+        .expireAfter(new NullValueAwareExpiry(cache.getTtl(), cache.getNegativeTtl()))
+        .recordStats();
+  }
+
+  /**
+   * 書き込み後TTL。「存在しない」（null を保存した {@link NullValue}）だけ短くする。
+   *
+   * <p>他インスタンスでの登録やSQLでの投入はこのインスタンスのキャッシュを上書きしないので、ネガティブキャッシュが長く残ると、
+   * 登録済みのコードに 404 を返し続けてしまう。
+   */
+  static final class NullValueAwareExpiry implements Expiry<Object, Object> {
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    NullValueAwareExpiry(Duration ttl, Duration negativeTtl) {
+      this.ttlNanos = ttl.toNanos();
+      this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+      return value instanceof NullValue ? negativeTtlNanos : ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        Object key, Object value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
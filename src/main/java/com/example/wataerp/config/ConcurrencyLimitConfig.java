@@ -0,0 +1,50 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.shared.admission.AdaptiveConcurrencyLimiter;
+import com.example.wataerp.shared.admission.ConcurrencyLimitAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * DBアクセスの適応的な同時実行数の上限。
+ *
+ * <p>{@code @ConcurrencyLimited} を付けた repository の参照と書き込みのトランザクションが対象（キャッシュ・スナップショットから
+ * 返す参照は通らない）。上限を超えた呼び出しは 503 を返す（ApiExceptionHandler）。現在の上限は {@code
+ * wataerp.concurrency.limit}、実行中の数は {@code wataerp.concurrency.in-flight}、断った件数は {@code
+ * wataerp.concurrency.shed} に出す。
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(
+    prefix = "wataerp.concurrency-limit",
+    name = "enabled",
+    matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+  @Bean
+  public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+      ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+    AdaptiveConcurrencyLimiter limiter =
+        new AdaptiveConcurrencyLimiter(
+            properties.getInitialLimit(),
+            properties.getMinLimit(),
+            properties.getMaxLimit(),
+            properties.getTolerance(),
+            properties.getSmoothing());
+    Gauge.builder("wataerp.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+        .register(meterRegistry);
+    Gauge.builder("wataerp.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+        .register(meterRegistry);
+    return limiter;
+  }
+
+  @Bean
+  public ConcurrencyLimitAspect concurrencyLimitAspect(
+      AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+    return new ConcurrencyLimitAspect(limiter, meterRegistry);
+  }
+}
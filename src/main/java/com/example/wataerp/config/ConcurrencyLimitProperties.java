@@ -0,0 +1,72 @@
+package com.example.wataerp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** サービス呼び出しの適応的な同時実行数の上限の設定値（application.yml の wataerp.concurrency-limit.*） */
+@ConfigurationProperties(prefix = "wataerp.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+  // false にするとリミッタを外す
+  private boolean enabled = true;
+
+  // 起動直後の上限（観測したレイテンシに応じて min〜max の間で変わる）
+  private int initialLimit = 20;
+
+  private int minLimit = 4;
+
+  private int maxLimit = 200;
+
+  // 平常時の何倍までの遅延を許すか（超えた比率で上限を下げる）
+  private double tolerance = 1.5;
+
+  // 1回の更新で新しい上限をどれだけ反映するか（0〜1、大きいほど速く追従する）
+  private double smoothing = 0.2;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  public void setInitialLimit(int initialLimit) {
+    this.initialLimit = initialLimit;
+  }
+
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  public void setMinLimit(int minLimit) {
+    this.minLimit = minLimit;
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  public void setMaxLimit(int maxLimit) {
+    this.maxLimit = maxLimit;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  public double getSmoothing() {
+    return smoothing;
+  }
+
+  public void setSmoothing(double smoothing) {
+    this.smoothing = smoothing;
+  }
+}
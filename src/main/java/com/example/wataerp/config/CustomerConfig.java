@@ -0,0 +1,8 @@
+package com.example.wataerp.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CustomerProperties.class)
+public class CustomerConfig {}
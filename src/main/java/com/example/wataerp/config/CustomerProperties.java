@@ -0,0 +1,271 @@
+package com.example.wataerp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** 顧客APIまわりの設定値（application.yml の wataerp.customer.*） */
+@ConfigurationProperties(prefix = "wataerp.customer")
+public class CustomerProperties {
+
+  private final Page page = new Page();
+  private final Export export = new Export();
+  private final Batch batch = new Batch();
+  private final Import importing = new Import();
+  private final Lookup lookup = new Lookup();
+  private final Search search = new Search();
+  private final Snapshot snapshot = new Snapshot();
+  private final Cache cache = new Cache();
+  private final Coalesce coalesce = new Coalesce();
+
+  public Page getPage() {
+    return page;
+  }
+
+  public Export getExport() {
+    return export;
+  }
+
+  public Batch getBatch() {
+    return batch;
+  }
+
+  public Import getImport() {
+    return importing;
+  }
+
+  public Lookup getLookup() {
+    return lookup;
+  }
+
+  public Search getSearch() {
+    return search;
+  }
+
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  public Cache getCache() {
+    return cache;
+  }
+
+  public Coalesce getCoalesce() {
+    return coalesce;
+  }
+
+  public static class Page {
+    // size未指定時の件数
+    private int defaultSize = 50;
+
+    // 1リクエストで返す上限件数（これを超える指定は上限に丸める）
+    private int maxSize = 500;
+
+    public int getDefaultSize() {
+      return defaultSize;
+    }
+
+    public void setDefaultSize(int defaultSize) {
+      this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+  }
+
+  public static class Export {
+    // JDBCカーソルで一度に取得する行数（ヒープに載るのはこの行数分だけ）
+    private int fetchSize = 1000;
+
+    // Excel出力でメモリに保持する行数（これを超えた行は圧縮した一時ファイルへ書き出される）
+    private int excelRowWindow = 100;
+
+    public int getFetchSize() {
+      return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+    }
+
+    public int getExcelRowWindow() {
+      return excelRowWindow;
+    }
+
+    public void setExcelRowWindow(int excelRowWindow) {
+      this.excelRowWindow = excelRowWindow;
+    }
+  }
+
+  public static class Batch {
+    // 一括登録1リクエストあたりの上限件数（1トランザクションで永続化コンテキストに載る件数）
+    private int maxSize = 1000;
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+  }
+
+  public static class Import {
+    // レスポンスに載せる検証エラー明細の上限（件数自体は全件数える）
+    private int maxRejectedRows = 1000;
+
+    public int getMaxRejectedRows() {
+      return maxRejectedRows;
+    }
+
+    public void setMaxRejectedRows(int maxRejectedRows) {
+      this.maxRejectedRows = maxRejectedRows;
+    }
+  }
+
+  public static class Lookup {
+    // 1リクエストで受け付けるコード数の上限（重複除去後）
+    private int maxCodes = 100_000;
+
+    // 1回の問い合わせで引くコード数（1チャンク分の結果だけをヒープに載せる）
+    private int chunkSize = 1000;
+
+    public int getMaxCodes() {
+      return maxCodes;
+    }
+
+    public void setMaxCodes(int maxCodes) {
+      this.maxCodes = maxCodes;
+    }
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+  }
+
+  public static class Search {
+    // 会社名検索の最小文字数（trigram は3文字単位なので、2文字以下の部分一致はインデックスで絞り込めない）
+    private int minLength = 3;
+
+    // limit未指定時の件数
+    private int defaultLimit = 10;
+
+    // 返す件数の上限（これを超える指定は上限に丸める）
+    private int maxLimit = 50;
+
+    // 1回の検索のSQL実行時間の上限（statement_timeout）
+    private Duration timeout = Duration.ofMillis(500);
+
+    public int getMinLength() {
+      return minLength;
+    }
+
+    public void setMinLength(int minLength) {
+      this.minLength = minLength;
+    }
+
+    public int getDefaultLimit() {
+      return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+      this.defaultLimit = defaultLimit;
+    }
+
+    public int getMaxLimit() {
+      return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+    }
+
+    public Duration getTimeout() {
+      return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+      this.timeout = timeout;
+    }
+  }
+
+  public static class Snapshot {
+    // 顧客マスタ全件をメモリに載せ、参照系をそこから返す
+    private boolean enabled = false;
+
+    // 定期的に作り直す間隔（自インスタンスでの登録・取り込み時はその都度作り直す）
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getRefreshInterval() {
+      return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+      this.refreshInterval = refreshInterval;
+    }
+  }
+
+  public static class Cache {
+    // 顧客コードのキャッシュに保持する件数の上限
+    private long maximumSize = 100_000;
+
+    // 書き込み後に保持する期間
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // 存在しないコード（ネガティブキャッシュ）を保持する期間。他インスタンスでの登録が見えるまでの遅れになる
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public Duration getNegativeTtl() {
+      return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+      this.negativeTtl = negativeTtl;
+    }
+  }
+
+  public static class Coalesce {
+    // 実行中の同じ参照に合流したときに待つ時間の上限（超えたら 503）
+    private Duration waitTimeout = Duration.ofSeconds(3);
+
+    public Duration getWaitTimeout() {
+      return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+      this.waitTimeout = waitTimeout;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.wataerp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * メトリクス設定。
+ *
+ * <p>サービス・JDBCリポジトリはクラスに {@code @Timed} を付け、公開メソッドごとに計測する（tags: class, method,
+ * exception）。Spring Data のリポジトリは Spring Boot が spring.data.repository.invocations で計測する。
+ * パーセンタイル用のヒストグラムとSLOのバケットは management.metrics.distribution.* で指定する。
+ */
+@Configuration
+public class MetricsConfig {
+
+  // サービスのメソッド単位の処理時間
+  public static final String SERVICE_TIMER = "wataerp.service";
+
+  // JDBC（JdbcTemplate・COPY）のクエリ単位の処理時間
+  public static final String REPOSITORY_TIMER = "wataerp.repository";
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+}
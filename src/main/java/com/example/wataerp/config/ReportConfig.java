@@ -0,0 +1,23 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.shared.concurrent.MdcExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReportProperties.class)
+public class ReportConfig {
+
+  // 1ジョブ1仮想スレッド。同時実行数は ReportJobService が種別ごとのセマフォで絞る。
+  // 受付リクエストの MDC（correlationId）をワーカーのログへ引き継ぐ
+  @Bean(destroyMethod = "shutdownNow")
+  public ExecutorService reportExecutor() {
+    return new MdcExecutorService(
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-", 0).factory()));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.domain.report.entity.ReportType;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** 非同期レポート生成の設定値（application.yml の wataerp.report.*） */
+@ConfigurationProperties(prefix = "wataerp.report")
+public class ReportProperties {
+
+  // 生成したファイルの置き場所
+  private Path storageDir = Path.of(System.getProperty("java.io.tmpdir"), "wataerp-reports");
+
+  // 完了後にファイルを保持する期間
+  private Duration ttl = Duration.ofHours(24);
+
+  // 受付済み（待ち＋実行中）ジョブの上限。超えた受付は429で断る
+  private int maxPending = 20;
+
+  // レポート種別ごとの同時実行数（未指定の種別は1）
+  private Map<ReportType, Integer> concurrency = new EnumMap<>(ReportType.class);
+
+  // PDFは全行をDOMに載せて組版するため、出力行数に上限を設ける
+  private int pdfMaxRows = 5000;
+
+  // PDFに埋め込む日本語フォント（TTF）。未指定だと日本語が表示されない
+  private Path pdfFont;
+
+  public int concurrencyOf(ReportType type) {
+    return concurrency.getOrDefault(type, 1);
+  }
+
+  public Path getStorageDir() {
+    return storageDir;
+  }
+
+  public void setStorageDir(Path storageDir) {
+    this.storageDir = storageDir;
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  public void setTtl(Duration ttl) {
+    this.ttl = ttl;
+  }
+
+  public int getMaxPending() {
+    return maxPending;
+  }
+
+  public void setMaxPending(int maxPending) {
+    this.maxPending = maxPending;
+  }
+
+  public Map<ReportType, Integer> getConcurrency() {
+    return concurrency;
+  }
+
+  public void setConcurrency(Map<ReportType, Integer> concurrency) {
+    this.concurrency = concurrency;
+  }
+
+  public int getPdfMaxRows() {
+    return pdfMaxRows;
+  }
+
+  public void setPdfMaxRows(int pdfMaxRows) {
+    this.pdfMaxRows = pdfMaxRows;
+  }
+
+  public Path getPdfFont() {
+    return pdfFont;
+  }
+
+  public void setPdfFont(Path pdfFont) {
+    this.pdfFont = pdfFont;
+  }
+}
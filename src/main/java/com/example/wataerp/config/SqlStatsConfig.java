@@ -0,0 +1,69 @@
+package com.example.wataerp.config;
+
+import com.example.wataerp.shared.filter.SqlStatsFilter;
+import com.example.wataerp.shared.sql.SlowSqlLog;
+import com.example.wataerp.shared.sql.SqlStatsDataSource;
+import com.example.wataerp.shared.sql.SqlStatsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * リクエストごとのSQL計測（文の数・行数・DB時間と N+1 の検知）。
+ *
+ * <p>DataSource を {@link SqlStatsDataSource} で包み、{@link SqlStatsFilter} がリクエストごとに集計してメトリクス
+ * （開発時はレスポンスヘッダも）に出す。閾値以上かかったSQLは {@link SlowSqlLog} が1行でログに出す。
+ *
+ * <p>文の数とDB時間は本番でも数える。行数は結果セットも包むので {@code wataerp.sql-stats.count-rows=true} のときだけ
+ * （dev プロファイルで有効）。{@code wataerp.sql-stats.enabled=false} で集計を止めても、遅いSQLのログが有効なら
+ * DataSource は包み、SQLの実行時間だけを測る。
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatsProperties.class)
+public class SqlStatsConfig {
+
+  @Bean
+  public static SqlStatsRegistry sqlStatsRegistry() {
+    return new SqlStatsRegistry();
+  }
+
+  // BeanPostProcessor は他のBeanより先に作られるので static にし、レジストリは DataSource を包むときに引く
+  @Bean
+  public static BeanPostProcessor sqlStatsDataSourcePostProcessor(
+      ObjectProvider<SqlStatsRegistry> registry, ObjectProvider<SqlStatsProperties> properties) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatsDataSource)) {
+          SqlStatsProperties.SlowQuery slowQuery = properties.getObject().getSlowQuery();
+          SlowSqlLog slowSqlLog =
+              new SlowSqlLog(slowQuery.getThreshold(), slowQuery.getSampleRate());
+          SqlStatsProperties sqlStats = properties.getObject();
+          if (sqlStats.isEnabled() || slowSqlLog.isEnabled()) {
+            return new SqlStatsDataSource(
+                dataSource, registry.getObject(), slowSqlLog, sqlStats.isCountRows());
+          }
+        }
+        return bean;
+      }
+    };
+  }
+
+  // CorrelationIdFilter（HIGHEST_PRECEDENCE）の内側で動かす。無効なら計測IDを採番しないので、どのSQLも数えない
+  @Bean
+  @ConditionalOnProperty(prefix = "wataerp.sql-stats", name = "enabled", matchIfMissing = true)
+  public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(
+      SqlStatsRegistry registry, SqlStatsProperties properties, MeterRegistry meterRegistry) {
+    FilterRegistrationBean<SqlStatsFilter> registration =
+        new FilterRegistrationBean<>(new SqlStatsFilter(registry, properties, meterRegistry));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    return registration;
+  }
+}
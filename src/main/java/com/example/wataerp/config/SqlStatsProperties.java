@@ -0,0 +1,83 @@
+package com.example.wataerp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** リクエストごとのSQL計測の設定値（application.yml の wataerp.sql-stats.*） */
+@ConfigurationProperties(prefix = "wataerp.sql-stats")
+public class SqlStatsProperties {
+
+  // リクエストごとにSQLの文の数・DB時間を集計してメトリクスに出す
+  private boolean enabled = true;
+
+  // 行数も数える（結果セットを包み、1行ごとの next() がリフレクション経由になる）。既定は無効、dev プロファイルで有効
+  private boolean countRows = false;
+
+  // 集計をレスポンスヘッダ（X-Sql-Statements など）で返す。開発時だけ有効にする
+  private boolean responseHeaders = false;
+
+  // 1リクエストで同じSQL文がこの回数以上実行されたら N+1 の疑いとして警告する
+  private int repeatedStatementThreshold = 5;
+
+  private final SlowQuery slowQuery = new SlowQuery();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isCountRows() {
+    return countRows;
+  }
+
+  public void setCountRows(boolean countRows) {
+    this.countRows = countRows;
+  }
+
+  public boolean isResponseHeaders() {
+    return responseHeaders;
+  }
+
+  public void setResponseHeaders(boolean responseHeaders) {
+    this.responseHeaders = responseHeaders;
+  }
+
+  public int getRepeatedStatementThreshold() {
+    return repeatedStatementThreshold;
+  }
+
+  public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+    this.repeatedStatementThreshold = repeatedStatementThreshold;
+  }
+
+  public SlowQuery getSlowQuery() {
+    return slowQuery;
+  }
+
+  public static class SlowQuery {
+    // この時間以上かかったSQLを1行に詰めてログに出す（リクエスト外のSQLも対象）。0 で無効
+    private Duration threshold = Duration.ofMillis(200);
+
+    // 遅いSQLのうちログに出す割合（1.0 で全件）。件数は wataerp.sql.slow で全件数える
+    private double sampleRate = 1.0;
+
+    public Duration getThreshold() {
+      return threshold;
+    }
+
+    public void setThreshold(Duration threshold) {
+      this.threshold = threshold;
+    }
+
+    public double getSampleRate() {
+      return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+      this.sampleRate = sampleRate;
+    }
+  }
+}
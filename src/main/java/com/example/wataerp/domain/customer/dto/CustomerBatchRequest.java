@@ -0,0 +1,19 @@
+package com.example.wataerp.domain.customer.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class CustomerBatchRequest {
+
+  // 1件でも不正な要素があればバッチ全体を400で返す（customers[3].code のように位置を返す）
+  @NotEmpty @Valid private List<CustomerRequest> customers;
+
+  public List<CustomerRequest> getCustomers() {
+    return customers;
+  }
+
+  public void setCustomers(List<CustomerRequest> customers) {
+    this.customers = customers;
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.wataerp.domain.customer.dto;
+
+import java.util.List;
+
+public class CustomerBatchResponse {
+
+  private int created;
+
+  private int failed;
+
+  // リクエストと同じ順序で1件ごとの結果を返す
+  private List<Result> results;
+
+  public CustomerBatchResponse() {}
+
+  public CustomerBatchResponse(List<Result> results) {
+    this.results = results;
+    this.created = (int) results.stream().filter(r -> r.getStatus() == Status.CREATED).count();
+    this.failed = results.size() - created;
+  }
+
+  public int getCreated() {
+    return created;
+  }
+
+  public void setCreated(int created) {
+    this.created = created;
+  }
+
+  public int getFailed() {
+    return failed;
+  }
+
+  public void setFailed(int failed) {
+    this.failed = failed;
+  }
+
+  public List<Result> getResults() {
+    return results;
+  }
+
+  public void setResults(List<Result> results) {
+    this.results = results;
+  }
+
+  public enum Status {
+    CREATED,
+    DUPLICATE
+  }
+
+  public static class Result {
+
+    private int index;
+
+    private String code;
+
+    private Status status;
+
+    private String message;
+
+    public Result() {}
+
+    public Result(int index, String code, Status status, String message) {
+      this.index = index;
+      this.code = code;
+      this.status = status;
+      this.message = message;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public void setIndex(int index) {
+      this.index = index;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public void setCode(String code) {
+      this.code = code;
+    }
+
+    public Status getStatus() {
+      return status;
+    }
+
+    public void setStatus(Status status) {
+      this.status = status;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    public void setMessage(String message) {
+      this.message = message;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.wataerp.domain.customer.dto;
+
+import java.util.List;
+
+public class CustomerImportResponse {
+
+  // CSVから読み込んだデータ行数（ヘッダ除く）
+  private long received;
+
+  // customer_master に反映（INSERT/UPDATE）された行数
+  private long applied;
+
+  // 既存コード・ファイル内重複のため反映しなかった行数
+  private long skipped;
+
+  // 検証エラーで取り込まなかった行数
+  private long rejected;
+
+  // 検証エラーの明細（件数が多い場合は先頭から上限件数まで）
+  private List<RejectedRow> rejectedRows;
+
+  public long getReceived() {
+    return received;
+  }
+
+  public void setReceived(long received) {
+    this.received = received;
+  }
+
+  public long getApplied() {
+    return applied;
+  }
+
+  public void setApplied(long applied) {
+    this.applied = applied;
+  }
+
+  public long getSkipped() {
+    return skipped;
+  }
+
+  public void setSkipped(long skipped) {
+    this.skipped = skipped;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public void setRejected(long rejected) {
+    this.rejected = rejected;
+  }
+
+  public List<RejectedRow> getRejectedRows() {
+    return rejectedRows;
+  }
+
+  public void setRejectedRows(List<RejectedRow> rejectedRows) {
+    this.rejectedRows = rejectedRows;
+  }
+
+  public static class RejectedRow {
+
+    // CSV上の行番号（ヘッダを1行目とする）
+    private long line;
+
+    private String code;
+
+    private String reason;
+
+    public RejectedRow() {}
+
+    public RejectedRow(long line, String code, String reason) {
+      this.line = line;
+      this.code = code;
+      this.reason = reason;
+    }
+
+    public long getLine() {
+      return line;
+    }
+
+    public void setLine(long line) {
+      this.line = line;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public void setCode(String code) {
+      this.code = code;
+    }
+
+    public String getReason() {
+      return reason;
+    }
+
+    public void setReason(String reason) {
+      this.reason = reason;
+    }
+  }
+}
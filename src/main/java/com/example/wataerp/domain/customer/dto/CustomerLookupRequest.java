@@ -0,0 +1,19 @@
+package com.example.wataerp.domain.customer.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class CustomerLookupRequest {
+
+  // 重複はサーバ側で除去するのでそのまま送ってよい
+  @NotEmpty private List<@NotBlank String> codes;
+
+  public List<String> getCodes() {
+    return codes;
+  }
+
+  public void setCodes(List<String> codes) {
+    this.codes = codes;
+  }
+}
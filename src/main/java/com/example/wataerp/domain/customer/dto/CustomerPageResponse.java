@@ -0,0 +1,34 @@
+package com.example.wataerp.domain.customer.dto;
+
+import java.util.List;
+
+public class CustomerPageResponse {
+
+  private List<CustomerResponse> items;
+
+  // 次ページ取得用のカーソル（最終ページならnull）
+  private String next;
+
+  public CustomerPageResponse() {}
+
+  public CustomerPageResponse(List<CustomerResponse> items, String next) {
+    this.items = items;
+    this.next = next;
+  }
+
+  public List<CustomerResponse> getItems() {
+    return items;
+  }
+
+  public void setItems(List<CustomerResponse> items) {
+    this.items = items;
+  }
+
+  public String getNext() {
+    return next;
+  }
+
+  public void setNext(String next) {
+    this.next = next;
+  }
+}
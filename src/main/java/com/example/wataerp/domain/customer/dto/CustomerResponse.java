@@ -1,5 +1,6 @@
 package com.example.wataerp.domain.customer.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 
 public class CustomerResponse {
@@ -16,6 +17,29 @@ public class CustomerResponse {
 
   private Boolean active;
 
+  // 本文には出さず ETag ヘッダで返す
+  @JsonIgnore private Long version;
+
+  public CustomerResponse() {}
+
+  /** JPQLのコンストラクタ式（{@code select new ...}）でエンティティを経由せずに詰めるためのもの */
+  public CustomerResponse(
+      String code,
+      String companyName,
+      String billingAddress,
+      String taxCode,
+      BigDecimal creditLimit,
+      Boolean active,
+      Long version) {
+    this.code = code;
+    this.companyName = companyName;
+    this.billingAddress = billingAddress;
+    this.taxCode = taxCode;
+    this.creditLimit = creditLimit;
+    this.active = active;
+    this.version = version;
+  }
+
   public String getCode() {
     return code;
   }
@@ -67,4 +91,12 @@ public class CustomerResponse {
   public void setActive(Boolean active) {
     this.active = active;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
 }
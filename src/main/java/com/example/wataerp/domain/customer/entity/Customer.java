@@ -4,21 +4,26 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.UUID;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(
     name = "customer_master",
     uniqueConstraints = {@UniqueConstraint(name = "uk_customers_code", columnNames = "code")},
     indexes = {@Index(name = "idx_customers_code", columnList = "code")})
-public class Customer {
+public class Customer implements Persistable<UUID> {
 
   @Id
-  // 生成はアプリ側で行う想定（Controller/Serviceで UUID.randomUUID()）
+  // 生成はアプリ側で行う想定（Serviceで UuidV7.next()。時刻順なので主キー索引へは右端に追記される）
   // DB側で生成したい場合は @GeneratedValue を使う選択もあるが、今回は手動採番で進める
   @Column(name = "id", nullable = false, updatable = false, columnDefinition = "uuid")
   private UUID id;
@@ -41,6 +46,27 @@ public class Customer {
   @Column(name = "active", nullable = false)
   private Boolean active = true;
 
+  // 更新のたびに Hibernate が +1 し、UPDATE の WHERE に含める（楽観ロック）。新規登録時は 0
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  // IDを手動採番しているため、Spring Dataに新規かどうかを自分で申告する
+  // （申告しないと save() が merge 扱いになり、INSERT前に id で SELECT が1本走る）
+  @Transient private boolean newEntity = true;
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.newEntity = false;
+  }
+
+  @Override
   public UUID getId() {
     return id;
   }
@@ -99,4 +125,12 @@ public class Customer {
     // creditLimitと同様nullが来た時にヌルポになるので、その場合はtrue
     this.active = (active == null) ? Boolean.TRUE : active;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
 }
@@ -53,6 +53,7 @@ public final class CustomerMapper {
     res.setTaxCode(trimOrNull(customer.getTaxCode()));
     res.setCreditLimit(customer.getCreditLimit());
     res.setActive(customer.getActive());
+    res.setVersion(customer.getVersion());
     return res;
   }
 
@@ -0,0 +1,154 @@
+package com.example.wataerp.domain.customer.repository;
+
+import com.example.wataerp.config.MetricsConfig;
+import io.micrometer.core.annotation.Timed;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * PostgreSQL の COPY を使って customer_master を一括で読み書きするリポジトリ。
+ *
+ * <p>いずれのメソッドも呼び出し側のトランザクションに紐づいたコネクションを使う。
+ */
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@Repository
+public class CustomerCopyRepository {
+
+  private static final String CREATE_IMPORT_STAGE =
+      "CREATE TEMP TABLE customer_import_stage"
+          + " (LIKE customer_master INCLUDING DEFAULTS, line_no bigint NOT NULL)"
+          + " ON COMMIT DROP";
+
+  private static final String COPY_INTO_IMPORT_STAGE =
+      "COPY customer_import_stage"
+          + " (id, code, company_name, billing_address, tax_code, credit_limit, active, line_no)"
+          + " FROM STDIN WITH (FORMAT csv)";
+
+  // ファイル内で同じコードが複数あれば、スキップ時は先勝ち・更新時は後勝ちにする
+  private static final String MERGE_SKIP =
+      "INSERT INTO customer_master"
+          + " (id, code, company_name, billing_address, tax_code, credit_limit, active)"
+          + " SELECT DISTINCT ON (code)"
+          + " id, code, company_name, billing_address, tax_code, credit_limit, active"
+          + " FROM customer_import_stage ORDER BY code, line_no"
+          + " ON CONFLICT (code) DO NOTHING";
+
+  private static final String MERGE_UPDATE =
+      "INSERT INTO customer_master"
+          + " (id, code, company_name, billing_address, tax_code, credit_limit, active)"
+          + " SELECT DISTINCT ON (code)"
+          + " id, code, company_name, billing_address, tax_code, credit_limit, active"
+          + " FROM customer_import_stage ORDER BY code, line_no DESC"
+          + " ON CONFLICT (code) DO UPDATE SET"
+          + " company_name = EXCLUDED.company_name,"
+          + " billing_address = EXCLUDED.billing_address,"
+          + " tax_code = EXCLUDED.tax_code,"
+          + " credit_limit = EXCLUDED.credit_limit,"
+          + " version = customer_master.version + 1";
+
+  // 列名は取り込みCSVのヘッダと揃える（エクスポート結果をそのまま取り込めるように）
+  private static final String EXPORT_SELECT =
+      "SELECT code, company_name AS \"companyName\", billing_address AS \"billingAddress\","
+          + " tax_code AS \"taxCode\", credit_limit AS \"creditLimit\", active"
+          + " FROM customer_master";
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  /** COPY のデータ部（CSV）を書き出すコールバック */
+  @FunctionalInterface
+  public interface CsvWriter {
+    void writeTo(Writer out) throws IOException;
+  }
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+
+  public CustomerCopyRepository(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** コミット時に消える取り込み用の一時テーブルを作る */
+  public void createImportStage() {
+    jdbcTemplate.execute(CREATE_IMPORT_STAGE);
+  }
+
+  /** 一時テーブルへ COPY FROM STDIN で流し込む。writer が書いたCSVがそのままサーバーへ送られる */
+  public void copyIntoImportStage(CsvWriter writer) {
+    Connection con = DataSourceUtils.getConnection(dataSource);
+    try {
+      PGConnection pgConnection = con.unwrap(PGConnection.class);
+      try (Writer out =
+          new BufferedWriter(
+              new OutputStreamWriter(
+                  new PGCopyOutputStream(pgConnection, COPY_INTO_IMPORT_STAGE, COPY_BUFFER_SIZE),
+                  StandardCharsets.UTF_8))) {
+        writer.writeTo(out);
+      }
+    } catch (SQLException e) {
+      throw new DataAccessResourceFailureException("COPY による取り込みに失敗しました。", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      DataSourceUtils.releaseConnection(con, dataSource);
+    }
+  }
+
+  /** 一時テーブルから customer_master へ反映し、反映した行数を返す */
+  public int mergeImportStage(boolean updateOnConflict) {
+    return jdbcTemplate.update(updateOnConflict ? MERGE_UPDATE : MERGE_SKIP);
+  }
+
+  /**
+   * COPY (SELECT ...) TO STDOUT WITH CSV HEADER の結果をそのまま out へ書き出し、出力行数を返す。
+   *
+   * <p>COPY はバインド変数を使えないため、条件値はSQLリテラルとしてエスケープして埋め込む。
+   */
+  public long copyOutCsv(boolean activeOnly, String codeFrom, String codeTo, OutputStream out) {
+    List<String> conditions = new ArrayList<>();
+    if (activeOnly) {
+      conditions.add("active");
+    }
+    if (codeFrom != null) {
+      conditions.add("code >= " + quoteLiteral(codeFrom));
+    }
+    if (codeTo != null) {
+      conditions.add("code <= " + quoteLiteral(codeTo));
+    }
+    String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    String sql =
+        "COPY (" + EXPORT_SELECT + where + " ORDER BY code) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    Connection con = DataSourceUtils.getConnection(dataSource);
+    try {
+      return con.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+    } catch (SQLException e) {
+      throw new DataAccessResourceFailureException("COPY による出力に失敗しました。", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      DataSourceUtils.releaseConnection(con, dataSource);
+    }
+  }
+
+  // standard_conforming_strings=on（PostgreSQLの既定）前提で、' を '' に重ねてリテラル化する
+  private static String quoteLiteral(String value) {
+    return "'" + value.replace("'", "''") + "'";
+  }
+}
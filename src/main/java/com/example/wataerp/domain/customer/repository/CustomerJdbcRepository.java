@@ -0,0 +1,224 @@
+package com.example.wataerp.domain.customer.repository;
+
+import com.example.wataerp.config.MetricsConfig;
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.shared.admission.ConcurrencyLimited;
+import io.micrometer.core.annotation.Timed;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JPAを通さずにJDBCで customer_master を読むリポジトリ。
+ *
+ * <p>大量行を扱う経路で、エンティティの生成・永続化コンテキストへの登録を避けるために使う。
+ */
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@Repository
+public class CustomerJdbcRepository {
+
+  private static final String SELECT_ALL_ORDER_BY_CODE =
+      "SELECT code, company_name, billing_address, tax_code, credit_limit, active, version"
+          + " FROM customer_master ORDER BY code";
+
+  // コード一覧は配列1個としてバインドするので、件数に関わらずSQL文は常にこの1本（プランキャッシュ・サーバ側プリペアが効く）。
+  // 入力の重複は最初の出現位置に寄せ、LEFT JOIN で見つからなかったコードもDB側で判定する。
+  private static final String SELECT_BY_CODES =
+      "WITH q AS ("
+          + " SELECT code, min(ord) AS ord"
+          + " FROM unnest(CAST(? AS varchar[])) WITH ORDINALITY AS t(code, ord)"
+          + " GROUP BY code)"
+          + " SELECT q.code AS requested_code,"
+          + " c.code, c.company_name, c.billing_address, c.tax_code, c.credit_limit, c.active,"
+          + " c.version"
+          + " FROM q LEFT JOIN customer_master c ON c.code = q.code"
+          + " ORDER BY q.ord";
+
+  // 顧客コードの前方一致（varchar_pattern_ops）
+  private static final String SEARCH_CODE =
+      "SELECT code, company_name, billing_address, tax_code, credit_limit, active, version"
+          + " FROM customer_master"
+          + " WHERE code LIKE ?"
+          + " ORDER BY code"
+          + " LIMIT ?";
+
+  // コードの前方一致を先頭に、会社名の部分一致を類似度の高い（距離の近い）順に続ける。
+  // 会社名側は GiST（gist_trgm_ops）で ILIKE の絞り込みと <-> の並べ替えを同時に行い、LIMIT 件だけ読む（全件を並べ替えない）。
+  // 両方に一致した顧客は2行になるので、呼び出し側で先に出た方だけを残す
+  private static final String SEARCH_CODE_AND_NAME =
+      "SELECT code, company_name, billing_address, tax_code, credit_limit, active, version"
+          + " FROM ("
+          + " (SELECT c.*, 0 AS rank, 0::real AS distance FROM customer_master c"
+          + " WHERE c.code LIKE ? ORDER BY c.code LIMIT ?)"
+          + " UNION ALL"
+          + " (SELECT c.*, 1 AS rank, c.company_name <-> ? AS distance FROM customer_master c"
+          + " WHERE c.company_name ILIKE ? ORDER BY c.company_name <-> ? LIMIT ?)"
+          + " ) s"
+          + " ORDER BY rank, distance, code";
+
+  // DBの照合順序で直前のコード（ux_customer_code を後ろから1件読む）
+  private static final String SELECT_PRECEDING_CODE =
+      "SELECT max(code) FROM customer_master WHERE code < ?";
+
+  private static final String SELECT_REVISION =
+      "SELECT coalesce(sum(revision), 0)::bigint FROM customer_master_revision";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public CustomerJdbcRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * 全顧客を code昇順で前方向カーソルで読み、1行ずつ consumer に渡す。
+   *
+   * <p>PostgreSQLはautocommit=falseのときだけfetchSizeが効くため、呼び出し側のトランザクション内で使うこと。
+   */
+  public void streamAll(int fetchSize, Consumer<CustomerResponse> consumer) {
+    streamAll(fetchSize, 0, consumer);
+  }
+
+  /** {@link #streamAll(int, Consumer)} の行数上限つき版（maxRows=0 は無制限） */
+  public void streamAll(int fetchSize, int maxRows, Consumer<CustomerResponse> consumer) {
+    jdbcTemplate.query(
+        con -> {
+          PreparedStatement ps =
+              con.prepareStatement(
+                  SELECT_ALL_ORDER_BY_CODE, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+          ps.setFetchSize(fetchSize);
+          ps.setMaxRows(maxRows);
+          return ps;
+        },
+        (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+  }
+
+  /**
+   * 指定コードの顧客と、存在しなかったコードを1回の問い合わせで返す。
+   *
+   * <p>どちらも入力の順序（重複は最初の出現）で並ぶ。{@code IN (?, ?, ...)} と違いバインド変数は1個なので、件数の上限もない。
+   */
+  @ConcurrencyLimited
+  public CodeLookup findByCodes(Collection<String> codes) {
+    return queryByCodes(codes);
+  }
+
+  /**
+   * {@link #findByCodes} と同じだが、適応的な同時実行数の上限（{@link ConcurrencyLimited}）を通らない。
+   *
+   * <p>POST /lookup のようにレスポンスを書き出しながらチャンクごとに呼ぶ場合に使う。途中のチャンクで断られると、200
+   * と書きかけの本文を送った後で失敗することになるため。同時実行数は受付時の export 枠（AdmissionControlFilter）で抑える。
+   */
+  public CodeLookup findByCodesUnlimited(Collection<String> codes) {
+    return queryByCodes(codes);
+  }
+
+  private CodeLookup queryByCodes(Collection<String> codes) {
+    List<CustomerResponse> found = new ArrayList<>(codes.size());
+    List<String> missing = new ArrayList<>();
+    jdbcTemplate.query(
+        SELECT_BY_CODES,
+        ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", codes.toArray())),
+        (RowCallbackHandler)
+            rs -> {
+              if (rs.getString("code") == null) {
+                missing.add(rs.getString("requested_code"));
+              } else {
+                found.add(mapRow(rs));
+              }
+            });
+    return new CodeLookup(found, missing);
+  }
+
+  /**
+   * 会社名の部分一致・顧客コードの前方一致で検索し、関連度順に最大 limit 件返す。
+   *
+   * <p>searchName=false のときは顧客コードの前方一致だけで探す。timeout は {@code SET LOCAL}
+   * でこのトランザクションにだけ設定する（超過すると {@link org.springframework.dao.QueryTimeoutException}）。
+   */
+  @ConcurrencyLimited
+  @Transactional(readOnly = true)
+  public List<CustomerResponse> search(
+      String keyword, boolean searchName, int limit, Duration timeout) {
+    // SET はバインド変数を取れないので数値だけを埋め込む
+    jdbcTemplate.execute("SET LOCAL statement_timeout = " + timeout.toMillis());
+
+    String escaped = escapeLike(keyword);
+    String codePrefix = escaped + "%";
+    if (!searchName) {
+      return jdbcTemplate.query(
+          SEARCH_CODE,
+          ps -> {
+            ps.setString(1, codePrefix);
+            ps.setInt(2, limit);
+          },
+          (rs, rowNum) -> mapRow(rs));
+    }
+
+    // 会社名側も limit 件取れば、コード側との重複を除いても limit 件に足りる
+    Map<String, CustomerResponse> result = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        SEARCH_CODE_AND_NAME,
+        ps -> {
+          ps.setString(1, codePrefix);
+          ps.setInt(2, limit);
+          ps.setString(3, keyword);
+          ps.setString(4, "%" + escaped + "%");
+          ps.setString(5, keyword);
+          ps.setInt(6, limit);
+        },
+        (RowCallbackHandler)
+            rs -> {
+              if (result.size() < limit) {
+                result.putIfAbsent(rs.getString("code"), mapRow(rs));
+              }
+            });
+    return new ArrayList<>(result.values());
+  }
+
+  /**
+   * customer_master の変更カウンタ（変更する文がコミットされるたびに進む）。一覧の ETag に使う。
+   *
+   * <p>書き込みが1行に集中しないよう64個の枠に分けて数えているので、その合計を返す（V7）。64行の合計なので、一覧本体を読む前に毎回引いてよい。
+   */
+  public long findRevision() {
+    Long revision = jdbcTemplate.queryForObject(SELECT_REVISION, Long.class);
+    return revision != null ? revision : 0L;
+  }
+
+  /** DBの照合順序（{@code ORDER BY code}）で code の直前に並ぶコード。無ければ null */
+  public String findPrecedingCode(String code) {
+    return jdbcTemplate.queryForObject(SELECT_PRECEDING_CODE, String.class, code);
+  }
+
+  /** {@link #findByCodes} の結果 */
+  public record CodeLookup(List<CustomerResponse> found, List<String> missing) {}
+
+  // LIKE のワイルドカードを文字として扱う（PostgreSQL の既定のエスケープ文字はバックスラッシュ）
+  private static String escapeLike(String s) {
+    return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  // DBには正規化済みの値が入っているので、Mapperを通さずそのまま詰める
+  private static CustomerResponse mapRow(ResultSet rs) throws SQLException {
+    CustomerResponse res = new CustomerResponse();
+    res.setCode(rs.getString("code"));
+    res.setCompanyName(rs.getString("company_name"));
+    res.setBillingAddress(rs.getString("billing_address"));
+    res.setTaxCode(rs.getString("tax_code"));
+    res.setCreditLimit(rs.getBigDecimal("credit_limit"));
+    res.setActive(rs.getBoolean("active"));
+    res.setVersion(rs.getLong("version"));
+    return res;
+  }
+}
@@ -1,9 +1,16 @@
 package com.example.wataerp.domain.customer.repository;
 
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
 import com.example.wataerp.domain.customer.entity.Customer;
+import com.example.wataerp.shared.admission.ConcurrencyLimited;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
@@ -12,4 +19,35 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
   // 指定したコードの顧客がいるかの判定
   boolean existsByCode(String code);
+
+  // 指定したコードのうち登録済みのものだけを返す（一括登録の重複チェックを1クエリで行う）
+  @Query("select c.code from Customer c where c.code in :codes")
+  List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+  // ---- 参照系（レスポンスへ直接射影） ----
+  // エンティティを生成しないので、永続化コンテキストへの登録・スナップショットも Mapper での詰め替えも発生しない。
+  // 文字列は登録時に CustomerMapper.toNewEntity で trim 済みのため、読み込み時には trim し直さない。
+  // API の参照で短時間に終わるものは同時実行数のリミッタを通す（全件は処理時間が件数で決まり、DBの混み具合の目安にならないので通さない）。
+
+  String RESPONSE_SELECT =
+      "select new com.example.wataerp.domain.customer.dto.CustomerResponse("
+          + "c.code, c.companyName, c.billingAddress, c.taxCode, c.creditLimit, c.active,"
+          + " c.version)"
+          + " from Customer c";
+
+  @Query(RESPONSE_SELECT)
+  List<CustomerResponse> findAllResponses();
+
+  @ConcurrencyLimited
+  @Query(RESPONSE_SELECT + " where c.code = :code")
+  Optional<CustomerResponse> findResponseByCode(@Param("code") String code);
+
+  // 一覧はキーセットページング（code昇順、ux_customer_code を使う）
+  @ConcurrencyLimited
+  @Query(RESPONSE_SELECT + " order by c.code")
+  List<CustomerResponse> findResponsePage(Limit limit);
+
+  @ConcurrencyLimited
+  @Query(RESPONSE_SELECT + " where c.code > :code order by c.code")
+  List<CustomerResponse> findResponsePageAfter(@Param("code") String code, Limit limit);
 }
@@ -0,0 +1,146 @@
+package com.example.wataerp.domain.customer.service;
+
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.config.MetricsConfig;
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.repository.CustomerCopyRepository;
+import com.example.wataerp.domain.customer.repository.CustomerJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Service
+public class CustomerExportService {
+
+  // CustomerRequest.code と同じ書式。範囲指定の値もこの書式に限る
+  private static final Pattern CODE_PATTERN = Pattern.compile("^[A-Za-z0-9_-]{1,32}$");
+
+  private static final String[] EXCEL_HEADERS = {"顧客コード", "会社名", "請求先住所", "税区分", "与信限度額", "有効"};
+
+  // 1シートの最大行数（ヘッダ行を含む）。超えたら次のシートへ続ける
+  private static final int EXCEL_MAX_ROWS_PER_SHEET =
+      SpreadsheetVersion.EXCEL2007.getLastRowIndex() + 1;
+
+  private final CustomerJdbcRepository customerJdbcRepository;
+  private final CustomerCopyRepository customerCopyRepository;
+  private final CustomerProperties properties;
+  private final TransactionTemplate readOnlyTransaction;
+
+  public CustomerExportService(
+      CustomerJdbcRepository customerJdbcRepository,
+      CustomerCopyRepository customerCopyRepository,
+      CustomerProperties properties,
+      PlatformTransactionManager transactionManager) {
+    this.customerJdbcRepository = customerJdbcRepository;
+    this.customerCopyRepository = customerCopyRepository;
+    this.properties = properties;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  // 全件を1行ずつ consumer に流す。リストに溜めないのでヒープ使用量は件数に依存しない
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<CustomerResponse> consumer) {
+    customerJdbcRepository.streamAll(properties.getExport().getFetchSize(), consumer);
+  }
+
+  // 先頭 maxRows 件（code昇順）だけを流す
+  @Transactional(readOnly = true)
+  public void exportAll(int maxRows, Consumer<CustomerResponse> consumer) {
+    customerJdbcRepository.streamAll(properties.getExport().getFetchSize(), maxRows, consumer);
+  }
+
+  // COPY TO STDOUT の出力をJVMで行に組み立てず、バイト列のまま out へ流す
+  @Transactional(readOnly = true)
+  public long exportCsv(boolean activeOnly, String codeFrom, String codeTo, OutputStream out) {
+    checkCodeRange(codeFrom, codeTo);
+    return customerCopyRepository.copyOutCsv(
+        activeOnly, emptyToNull(codeFrom), emptyToNull(codeTo), out);
+  }
+
+  /**
+   * 全顧客を .xlsx で out へ書き出す。
+   *
+   * <p>SXSSF は一定行数だけをメモリに保持し、それより前の行は圧縮した一時ファイルへ退避するため、ヒープ使用量は行数に依存しない。
+   * xlsx はzipの末尾に目次を持つ形式なので、レスポンスへの送出は全行を書き終えてから一時ファイルを順に読み出して行う。
+   *
+   * <p>トランザクション（コネクション）は全行を読み込む間だけ持ち、out への書き出しはコネクションを返してから行う（受信の遅い
+   * クライアントへの送出でプールを塞がない）。
+   */
+  public void exportXlsx(OutputStream out) throws IOException {
+    SXSSFWorkbook workbook = new SXSSFWorkbook(properties.getExport().getExcelRowWindow());
+    workbook.setCompressTempFiles(true);
+    try {
+      CellStyle amountStyle = workbook.createCellStyle();
+      amountStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+      SXSSFSheet[] sheet = {newCustomerSheet(workbook, 1)};
+      int[] rowIndex = {1};
+      // カーソルでの読み込みにはトランザクションが要る（PostgreSQL は自動コミットだとフェッチサイズが効かない）
+      readOnlyTransaction.executeWithoutResult(
+          status ->
+              customerJdbcRepository.streamAll(
+                  properties.getExport().getFetchSize(),
+                  customer -> {
+                    if (rowIndex[0] == EXCEL_MAX_ROWS_PER_SHEET) {
+                      sheet[0] = newCustomerSheet(workbook, workbook.getNumberOfSheets() + 1);
+                      rowIndex[0] = 1;
+                    }
+                    Row row = sheet[0].createRow(rowIndex[0]++);
+                    row.createCell(0).setCellValue(customer.getCode());
+                    row.createCell(1).setCellValue(customer.getCompanyName());
+                    row.createCell(2).setCellValue(customer.getBillingAddress());
+                    row.createCell(3).setCellValue(customer.getTaxCode());
+                    // 与信限度額は文字列ではなく数値セルにして、Excel側で集計できるようにする
+                    row.createCell(4).setCellValue(customer.getCreditLimit().doubleValue());
+                    row.getCell(4).setCellStyle(amountStyle);
+                    row.createCell(5).setCellValue(Boolean.TRUE.equals(customer.getActive()));
+                  }));
+
+      workbook.write(out);
+    } finally {
+      // 一時ファイルを削除する
+      workbook.dispose();
+      workbook.close();
+    }
+  }
+
+  // ストリーミング開始前（レスポンス確定前）に400を返せるよう、コントローラからも呼ぶ
+  public void checkCodeRange(String codeFrom, String codeTo) {
+    checkCode("codeFrom", codeFrom);
+    checkCode("codeTo", codeTo);
+  }
+
+  private static SXSSFSheet newCustomerSheet(SXSSFWorkbook workbook, int number) {
+    SXSSFSheet sheet = workbook.createSheet(number == 1 ? "customers" : "customers_" + number);
+    Row header = sheet.createRow(0);
+    for (int i = 0; i < EXCEL_HEADERS.length; i++) {
+      header.createCell(i).setCellValue(EXCEL_HEADERS[i]);
+    }
+    return sheet;
+  }
+
+  private static void checkCode(String name, String code) {
+    if (code != null && !code.isEmpty() && !CODE_PATTERN.matcher(code).matches()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + "の書式が違います: " + code);
+    }
+  }
+
+  private static String emptyToNull(String s) {
+    return (s == null || s.isEmpty()) ? null : s;
+  }
+}
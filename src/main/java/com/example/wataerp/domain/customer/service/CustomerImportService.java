@@ -0,0 +1,212 @@
+package com.example.wataerp.domain.customer.service;
+
+import com.example.wataerp.config.CacheConfig;
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.config.MetricsConfig;
+import com.example.wataerp.domain.customer.dto.CustomerImportResponse;
+import com.example.wataerp.domain.customer.dto.CustomerRequest;
+import com.example.wataerp.domain.customer.entity.Customer;
+import com.example.wataerp.domain.customer.mapper.CustomerMapper;
+import com.example.wataerp.domain.customer.repository.CustomerCopyRepository;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshotHolder;
+import com.example.wataerp.shared.id.UuidV7;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * CSVから顧客を一括取り込みする。
+ *
+ * <p>CSVは1行ずつ読み、{@link CustomerMapper#toNewEntity} と同じ正規化をかけて COPY で一時テーブルへ流し込み、
+ * 最後に INSERT ... ON CONFLICT で customer_master へ反映する。行をリストに溜めないのでメモリ使用量は行数に依存しない。
+ */
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Service
+public class CustomerImportService {
+
+  public enum OnConflict {
+    // 既存コードの行は反映しない
+    SKIP,
+    // 既存コードの行は会社名・請求先・税区分・与信限度額を上書きする
+    UPDATE
+  }
+
+  // 1行目をヘッダとして読む（列の並び順は問わない）
+  private static final CSVFormat INPUT_FORMAT =
+      CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+
+  private static final String COL_CODE = "code";
+  private static final String COL_COMPANY_NAME = "companyName";
+  private static final String COL_BILLING_ADDRESS = "billingAddress";
+  private static final String COL_TAX_CODE = "taxCode";
+  private static final String COL_CREDIT_LIMIT = "creditLimit";
+
+  private final CustomerCopyRepository customerCopyRepository;
+  private final Validator validator;
+  private final CustomerProperties properties;
+  private final CustomerSnapshotHolder snapshots;
+  private final Cache customerCache;
+
+  public CustomerImportService(
+      CustomerCopyRepository customerCopyRepository,
+      Validator validator,
+      CustomerProperties properties,
+      CustomerSnapshotHolder snapshots,
+      CacheManager cacheManager) {
+    this.customerCopyRepository = customerCopyRepository;
+    this.validator = validator;
+    this.properties = properties;
+    this.snapshots = snapshots;
+    this.customerCache =
+        new TransactionAwareCacheDecorator(
+            Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS)));
+  }
+
+  @Transactional
+  public CustomerImportResponse importCsv(InputStream csv, OnConflict onConflict) {
+    int maxRejectedRows = properties.getImport().getMaxRejectedRows();
+    List<CustomerImportResponse.RejectedRow> rejectedRows = new ArrayList<>();
+    long[] counts = new long[2]; // [0]=読み込み行数, [1]=検証エラー行数
+
+    customerCopyRepository.createImportStage();
+    customerCopyRepository.copyIntoImportStage(
+        out -> {
+          try (Reader reader = new InputStreamReader(csv, StandardCharsets.UTF_8);
+              CSVParser parser = INPUT_FORMAT.parse(reader)) {
+            requireColumns(parser, COL_CODE, COL_COMPANY_NAME);
+            // POSTGRESQL_CSV: null は空（=NULL）、値はクォートして出力される
+            CSVPrinter printer = new CSVPrinter(out, CSVFormat.POSTGRESQL_CSV);
+            for (CSVRecord record : parser) {
+              counts[0]++;
+              // ヘッダが1行目なので、データ行はレコード番号+1行目
+              long line = record.getRecordNumber() + 1;
+              CustomerRequest req = record.isConsistent() ? toRequest(record) : null;
+              String reason = validate(record, req);
+              if (reason != null) {
+                counts[1]++;
+                if (rejectedRows.size() < maxRejectedRows) {
+                  rejectedRows.add(
+                      new CustomerImportResponse.RejectedRow(line, value(record, COL_CODE), reason));
+                }
+                continue;
+              }
+              Customer customer = CustomerMapper.toNewEntity(req);
+              printer.printRecord(
+                  UuidV7.next(),
+                  customer.getCode(),
+                  customer.getCompanyName(),
+                  customer.getBillingAddress(),
+                  customer.getTaxCode(),
+                  customer.getCreditLimit().toPlainString(),
+                  customer.getActive(),
+                  line);
+            }
+            printer.flush();
+          } catch (UncheckedIOException e) {
+            // クォートの閉じ忘れなど、CSVとして読めない場合
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, "CSVの形式が不正です: " + e.getCause().getMessage());
+          }
+        });
+
+    long staged = counts[0] - counts[1];
+    int applied = customerCopyRepository.mergeImportStage(onConflict == OnConflict.UPDATE);
+
+    // 取り込んだコードはネガティブキャッシュされている可能性があるので、コミット後に丸ごと捨てる
+    customerCache.clear();
+    if (applied > 0) {
+      snapshots.markStale();
+    }
+
+    CustomerImportResponse response = new CustomerImportResponse();
+    response.setReceived(counts[0]);
+    response.setApplied(applied);
+    response.setSkipped(staged - applied);
+    response.setRejected(counts[1]);
+    response.setRejectedRows(rejectedRows);
+    return response;
+  }
+
+  // ---- helpers ----
+  private static void requireColumns(CSVParser parser, String... names) {
+    for (String name : names) {
+      if (!parser.getHeaderMap().containsKey(name)) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSVに必須列がありません: " + name);
+      }
+    }
+  }
+
+  /** 取り込めない理由を返す（問題なければnull） */
+  private String validate(CSVRecord record, CustomerRequest req) {
+    if (req == null) {
+      return "列数がヘッダと一致しません";
+    }
+    if (req.getCreditLimit() == null && !isBlank(value(record, COL_CREDIT_LIMIT))) {
+      return "creditLimit: 値の型が不正です。期待: BigDecimal";
+    }
+    // APIの登録と同じ Bean Validation をかける
+    Set<ConstraintViolation<CustomerRequest>> violations = validator.validate(req);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  private static CustomerRequest toRequest(CSVRecord record) {
+    CustomerRequest req = new CustomerRequest();
+    // CSVは手作業で編集されることが多いので、code は前後空白を落としてから検証する
+    String code = value(record, COL_CODE);
+    req.setCode(code == null ? null : code.trim());
+    req.setCompanyName(value(record, COL_COMPANY_NAME));
+    req.setBillingAddress(value(record, COL_BILLING_ADDRESS));
+    req.setTaxCode(value(record, COL_TAX_CODE));
+    req.setCreditLimit(parseDecimal(value(record, COL_CREDIT_LIMIT)));
+    return req;
+  }
+
+  // 空欄はnull（→Mapperで0）、数値として読めない場合もnullを返し validate で弾く
+  private static BigDecimal parseDecimal(String s) {
+    if (isBlank(s)) {
+      return null;
+    }
+    try {
+      return new BigDecimal(s.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static boolean isBlank(String s) {
+    return s == null || s.isBlank();
+  }
+
+  private static String value(CSVRecord record, String name) {
+    return record.isSet(name) ? record.get(name) : null;
+  }
+}
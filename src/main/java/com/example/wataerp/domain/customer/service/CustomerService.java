@@ -1,67 +1,382 @@
 package com.example.wataerp.domain.customer.service;
 
+import com.example.wataerp.config.CacheConfig;
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.config.MetricsConfig;
+import com.example.wataerp.domain.customer.dto.CustomerBatchResponse;
+import com.example.wataerp.domain.customer.dto.CustomerPageResponse;
 import com.example.wataerp.domain.customer.dto.CustomerRequest;
 import com.example.wataerp.domain.customer.dto.CustomerResponse;
 import com.example.wataerp.domain.customer.entity.Customer;
 import com.example.wataerp.domain.customer.mapper.CustomerMapper;
+import com.example.wataerp.domain.customer.repository.CustomerJdbcRepository;
 import com.example.wataerp.domain.customer.repository.CustomerRepository;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshot;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshotHolder;
+import com.example.wataerp.shared.admission.ConcurrencyLimited;
+import com.example.wataerp.shared.concurrent.SingleFlight;
+import com.example.wataerp.shared.id.UuidV7;
+import io.micrometer.core.annotation.Timed;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Service
 public class CustomerService {
 
+  // code の一意制約。V2 の ux_customer_code と、V1 の列定義 UNIQUE で作られた既定名の制約（どちらで検出されるかは DB 次第）
+  private static final Set<String> CODE_UNIQUE_CONSTRAINTS =
+      Set.of("ux_customer_code", "customer_master_code_key");
+
   private final CustomerRepository customerRepository;
+  private final CustomerJdbcRepository customerJdbcRepository;
+  private final CustomerProperties properties;
+  private final CustomerSnapshotHolder snapshots;
+  private final Cache customerCache;
+
+  // キャッシュに無い同じコード・同じコード一覧の同時の参照は、DBへの問い合わせ1回にまとめる
+  private final SingleFlight<String, CustomerResponse> customerLoads;
+  private final SingleFlight<List<String>, CustomerJdbcRepository.CodeLookup> codeLookups;
 
-  public CustomerService(CustomerRepository customerRepository) {
+  public CustomerService(
+      CustomerRepository customerRepository,
+      CustomerJdbcRepository customerJdbcRepository,
+      CustomerProperties properties,
+      CustomerSnapshotHolder snapshots,
+      CacheManager cacheManager) {
     this.customerRepository = customerRepository;
+    this.customerJdbcRepository = customerJdbcRepository;
+    this.properties = properties;
+    this.snapshots = snapshots;
+    // put/evict はコミット後に反映（ロールバックされた登録がキャッシュに残らないように）
+    this.customerCache =
+        new TransactionAwareCacheDecorator(
+            Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS)));
+    // 合流した側はリミッタの許可を持たずに待つので、待ち時間に上限を付ける（超えたら 503）
+    Duration waitTimeout = properties.getCoalesce().getWaitTimeout();
+    this.customerLoads = new SingleFlight<>("customer", waitTimeout);
+    this.codeLookups = new SingleFlight<>("customer-codes", waitTimeout);
   }
 
+  // 書き込みはトランザクション（コネクションの取得）ごとにリミッタを通す。参照はDBに行く repository のメソッドで通す
+  @ConcurrencyLimited
   @Transactional
   public CustomerResponse create(CustomerRequest request) {
-    if (customerRepository.existsByCode(request.getCode())) {
+    Customer entity = CustomerMapper.toNewEntity(request);
+    entity.setId(UuidV7.next());
+
+    Customer savedCustomer;
+    try {
+      // 新規エンティティは persist されるので発行されるのは INSERT 1本だけ
+      // 重複は事前に existsByCode で調べず、code の一意制約違反で検出する
+      savedCustomer = customerRepository.saveAndFlush(entity);
+    } catch (DataIntegrityViolationException e) {
+      if (!isDuplicateCode(e)) {
+        // NOT NULL・桁数などの違反は汎用の 409（ApiExceptionHandler）に任せる
+        throw e;
+      }
       throw new ResponseStatusException(HttpStatus.CONFLICT, "顧客コードが重複しています: " + request.getCode());
     }
 
-    Customer entity = CustomerMapper.toNewEntity(request);
-    entity.setId(UUID.randomUUID());
+    CustomerResponse response = CustomerMapper.toResponse(savedCustomer);
+    // 「存在しない」とネガティブキャッシュされていた場合もここで上書きされる
+    customerCache.put(response.getCode(), response);
+    snapshots.markInserted(response);
+    return response;
+  }
+
+  @ConcurrencyLimited
+  @Transactional
+  public CustomerBatchResponse createBatch(List<CustomerRequest> requests) {
+    int maxSize = properties.getBatch().getMaxSize();
+    if (requests.size() > maxSize) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "一括登録は" + maxSize + "件までです: " + requests.size());
+    }
+
+    List<Customer> entities = requests.stream().map(CustomerMapper::toNewEntity).toList();
+
+    // 登録済みコードは1クエリでまとめて調べる
+    Set<String> existing =
+        new HashSet<>(
+            customerRepository.findExistingCodes(
+                entities.stream().map(Customer::getCode).toList()));
+
+    List<CustomerBatchResponse.Result> results = new ArrayList<>(entities.size());
+    List<Customer> toInsert = new ArrayList<>(entities.size());
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < entities.size(); i++) {
+      Customer entity = entities.get(i);
+      String code = entity.getCode();
+      if (existing.contains(code)) {
+        results.add(duplicate(i, code, "顧客コードが重複しています: " + code));
+      } else if (!seen.add(code)) {
+        results.add(duplicate(i, code, "リクエスト内で顧客コードが重複しています: " + code));
+      } else {
+        entity.setId(UuidV7.next());
+        toInsert.add(entity);
+        results.add(
+            new CustomerBatchResponse.Result(i, code, CustomerBatchResponse.Status.CREATED, null));
+      }
+    }
+
+    try {
+      // hibernate.jdbc.batch_size 単位のJDBCバッチでINSERTされる
+      customerRepository.saveAllAndFlush(toInsert);
+    } catch (DataIntegrityViolationException e) {
+      if (!isDuplicateCode(e)) {
+        throw e;
+      }
+      // 事前チェック後に別トランザクションが同じコードを登録した場合。バッチ全体をロールバックする
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "並行して同じ顧客コードが登録されたため一括登録を中止しました。");
+    }
+
+    for (Customer customer : toInsert) {
+      customerCache.put(customer.getCode(), CustomerMapper.toResponse(customer));
+    }
+    if (!toInsert.isEmpty()) {
+      snapshots.markStale();
+    }
+    return new CustomerBatchResponse(results);
+  }
 
-    Customer savedCustomer = customerRepository.save(entity);
+  /**
+   * 一覧の ETag に使う変更カウンタ。
+   *
+   * <p>スナップショット有効時はDBを読まずスナップショットの値を返す。一覧本体はこの値を {@code minRevision} に渡して読むこと
+   * （返した ETag より古い内容を返すと、クライアントが次の変更まで古い一覧を 304 で使い続けてしまう）。
+   */
+  public long getRevision() {
+    Optional<CustomerSnapshot> snapshot = snapshots.current();
+    return snapshot.isPresent()
+        ? snapshot.get().getRevision()
+        : customerJdbcRepository.findRevision();
+  }
 
-    return CustomerMapper.toResponse(savedCustomer);
+  /** 全件取得。minRevision より古いスナップショットは使わずDBから読む */
+  public List<CustomerResponse> getAllCustomers(long minRevision) {
+    Optional<CustomerSnapshot> snapshot = snapshotAtLeast(minRevision);
+    return snapshot.isPresent() ? snapshot.get().all() : customerRepository.findAllResponses();
   }
 
-  @Transactional(readOnly = true)
+  // 参照系はどれも1クエリなので、スナップショットから返すときにコネクションを取らないようトランザクションは張らない
   public List<CustomerResponse> getCustomers(List<String> codes) {
-    List<Customer> customers;
-
+    Optional<CustomerSnapshot> snapshot = snapshots.current();
     if (codes == null || codes.isEmpty()) {
       // 全件取得
-      customers = customerRepository.findAll();
-    } else {
-      // 指定コード取得
-      customers = customerRepository.findByCodeIn(codes);
-
-      // 存在チェック（不足コード検出）
-      if (customers.size() != codes.size()) {
-        // Setにすることによって、Listよりも数十万行処理する場合などに性能有利
-        Set<String> found = customers.stream().map(Customer::getCode).collect(Collectors.toSet());
-        List<String> missing = codes.stream().filter(code -> !found.contains(code)).toList();
-        throw new ResponseStatusException(
-            HttpStatus.NOT_FOUND, "以下の顧客コードが見つかりません: " + String.join(", ", missing));
+      return snapshot.isPresent() ? snapshot.get().all() : customerRepository.findAllResponses();
+    }
+
+    if (snapshot.isPresent()) {
+      List<CustomerResponse> found = new ArrayList<>(codes.size());
+      for (String code : codes) {
+        CustomerResponse customer = snapshot.get().get(code);
+        if (customer == null) {
+          // スナップショット作成後に登録された可能性があるのでDBで確認する
+          found = null;
+          break;
+        }
+        found.add(customer);
+      }
+      if (found != null) {
+        return found;
       }
     }
-    return CustomerMapper.toResponseList(customers);
+
+    // 指定コード取得（見つからなかったコードもDB側で判定される）
+    List<String> key = List.copyOf(codes);
+    CustomerJdbcRepository.CodeLookup lookup =
+        codeLookups.execute(key, () -> customerJdbcRepository.findByCodes(key));
+    if (!lookup.missing().isEmpty()) {
+      throw new ResponseStatusException(
+          HttpStatus.NOT_FOUND, "以下の顧客コードが見つかりません: " + String.join(", ", lookup.missing()));
+    }
+    return lookup.found();
+  }
+
+  /** 一括照会のコードを trim・重複除去する（順序は最初の出現順）。上限を超える場合は400 */
+  public List<String> normalizeLookupCodes(List<String> codes) {
+    Set<String> unique = new LinkedHashSet<>();
+    for (String code : codes) {
+      unique.add(code.trim());
+    }
+    int maxCodes = properties.getLookup().getMaxCodes();
+    if (unique.size() > maxCodes) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "一括照会は" + maxCodes + "件までです: " + unique.size());
+    }
+    return new ArrayList<>(unique);
   }
 
-  @Transactional(readOnly = true)
+  /**
+   * コードをチャンクに分けて照会し、見つかった顧客を順に found へ渡す。見つからなかったコードは例外にせず返す。
+   *
+   * <p>レスポンスへ書き出しながら呼ばれるため、トランザクションは張らずチャンクごとにコネクションを返す（クライアントの受信待ちで
+   * コネクションを握り続けない）。適応的な同時実行数の上限も通さない（途中のチャンクで断ると、書きかけの本文の後で失敗になる）。
+   */
+  public List<String> lookup(List<String> codes, Consumer<CustomerResponse> found) {
+    int chunkSize = properties.getLookup().getChunkSize();
+    List<String> missing = new ArrayList<>();
+    for (int from = 0; from < codes.size(); from += chunkSize) {
+      List<String> chunk = codes.subList(from, Math.min(from + chunkSize, codes.size()));
+      CustomerJdbcRepository.CodeLookup result = customerJdbcRepository.findByCodesUnlimited(chunk);
+      result.found().forEach(found);
+      missing.addAll(result.missing());
+    }
+    return missing;
+  }
+
+  // キャッシュヒット時にコネクションを取らないよう、トランザクションはDB読み込み時だけにする
   public CustomerResponse getCustomer(String code) {
-    return getCustomers(List.of(code)).get(0);
+    CustomerResponse fromSnapshot = snapshots.current().map(s -> s.get(code)).orElse(null);
+    if (fromSnapshot != null) {
+      return fromSnapshot;
+    }
+    // 存在しないコードも null としてキャッシュする（ネガティブキャッシュ）
+    Cache.ValueWrapper cached = customerCache.get(code);
+    CustomerResponse customer =
+        cached != null
+            ? (CustomerResponse) cached.get()
+            : customerLoads.execute(code, () -> customerCache.get(code, () -> findCustomer(code)));
+    if (customer == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "以下の顧客コードが見つかりません: " + code);
+    }
+    return customer;
+  }
+
+  /** minRevision より古いスナップショットは使わずDBから読む（{@link #getRevision()} を参照） */
+  public CustomerPageResponse getCustomerPage(String cursor, Integer size, long minRevision) {
+    int pageSize = resolvePageSize(size);
+    String after = (cursor == null || cursor.isBlank()) ? null : decodeCursor(cursor);
+
+    // 次ページの有無を判定するため1件多く取得する（COUNTは発行しない）
+    Optional<CustomerSnapshot> snapshot = snapshotAtLeast(minRevision);
+    Limit limit = Limit.of(pageSize + 1);
+    List<CustomerResponse> customers;
+    Optional<List<CustomerResponse>> fromSnapshot =
+        snapshot.flatMap(s -> s.pageAfter(after, pageSize + 1));
+    if (fromSnapshot.isPresent()) {
+      customers = fromSnapshot.get();
+    } else if (after == null) {
+      customers = customerRepository.findResponsePage(limit);
+    } else {
+      customers = customerRepository.findResponsePageAfter(after, limit);
+    }
+
+    boolean hasNext = customers.size() > pageSize;
+    List<CustomerResponse> page = hasNext ? customers.subList(0, pageSize) : customers;
+    String next = hasNext ? encodeCursor(page.get(pageSize - 1).getCode()) : null;
+    return new CustomerPageResponse(page, next);
+  }
+
+  /**
+   * 会社名の部分一致・顧客コードの前方一致で検索する（関連度順、件数は上限まで）。
+   *
+   * <p>スナップショット有効時も、メモリ上で引くのはコードの前方一致だけの検索。会社名の検索は trigram の類似度で並べるのでDBで行う
+   * （メモリ上で近似すると、スナップショットの有無で結果が変わってしまう）。
+   */
+  public List<CustomerResponse> search(String q, Integer limit) {
+    String keyword = (q == null) ? "" : q.trim();
+    if (keyword.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "検索語(q)を指定してください。");
+    }
+    CustomerProperties.Search search = properties.getSearch();
+    int resolvedLimit = resolveLimit(limit, search.getDefaultLimit(), search.getMaxLimit());
+    // 短すぎる語（2文字以下）は trigram インデックスで絞り込めず全件走査になるので、コードの前方一致だけで探す
+    boolean searchName = keyword.length() >= search.getMinLength();
+
+    Optional<CustomerSnapshot> snapshot = snapshots.current();
+    if (snapshot.isPresent() && !searchName) {
+      return snapshot.get().findByCodePrefix(keyword, resolvedLimit);
+    }
+
+    try {
+      return customerJdbcRepository.search(
+          keyword, searchName, resolvedLimit, search.getTimeout());
+    } catch (QueryTimeoutException e) {
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "検索がタイムアウトしました。検索語を長くして再実行してください。");
+    }
+  }
+
+  // ---- helpers ----
+  /** 違反した制約が顧客コードの一意制約か（制約名は Hibernate が SQLException から取り出したもの） */
+  static boolean isDuplicateCode(DataIntegrityViolationException e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+        return CODE_UNIQUE_CONSTRAINTS.contains(cve.getConstraintName().toLowerCase(Locale.ROOT));
+      }
+    }
+    return false;
+  }
+
+  private static CustomerBatchResponse.Result duplicate(int index, String code, String message) {
+    return new CustomerBatchResponse.Result(
+        index, code, CustomerBatchResponse.Status.DUPLICATE, message);
+  }
+
+  private Optional<CustomerSnapshot> snapshotAtLeast(long minRevision) {
+    return snapshots.current().filter(s -> s.getRevision() >= minRevision);
+  }
+
+  private CustomerResponse findCustomer(String code) {
+    return customerRepository.findResponseByCode(code).orElse(null);
+  }
+
+  private int resolvePageSize(Integer size) {
+    if (size == null) {
+      return properties.getPage().getDefaultSize();
+    }
+    if (size < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sizeは1以上を指定してください: " + size);
+    }
+    // 上限を超える指定はエラーにせず上限に丸める
+    return Math.min(size, properties.getPage().getMaxSize());
+  }
+
+  private static int resolveLimit(Integer limit, int defaultLimit, int maxLimit) {
+    if (limit == null) {
+      return defaultLimit;
+    }
+    if (limit < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limitは1以上を指定してください: " + limit);
+    }
+    return Math.min(limit, maxLimit);
+  }
+
+  /** カーソルは最終行のcodeをURLセーフなBase64にしたもの */
+  private static String encodeCursor(String code) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(code.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decodeCursor(String cursor) {
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "カーソルが不正です: " + cursor);
+    }
   }
 }
@@ -0,0 +1,331 @@
+package com.example.wataerp.domain.customer.snapshot;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 顧客マスタ全件のイミュータブルなスナップショット。
+ *
+ * <p>1顧客1オブジェクトにせず、列ごとの配列で持つ（オブジェクトヘッダと参照の分だけ小さい）。与信限度額は銭単位の long、重複の多い
+ * 請求先住所・税区分は同じ文字列を共有する。
+ *
+ * <p>行はDBから読んだ順（{@code ORDER BY code}、DBの照合順序）のまま並べる。一覧のカーソルはDBの順で次の行を決めるので、Java の文字列順で
+ * 並べ直すと、スナップショットとDBが切り替わったときにページの行が飛んだり重複したりする。コードの完全一致・前方一致は、Java の文字列順に
+ * 並べた行番号の索引を二分探索して引く。
+ *
+ * <p>構築後は変更しないので、読み込みはロック無しで複数スレッドから行える。更新は新しいインスタンスを作って差し替える
+ * （{@link CustomerSnapshotHolder}）。
+ */
+public final class CustomerSnapshot {
+
+  private final String[] codes;
+  private final String[] companyNames;
+  private final String[] billingAddresses;
+  private final String[] taxCodes;
+  private final long[] creditLimitCents;
+  private final boolean[] active;
+  private final long[] versions;
+  // code を Java の文字列順に並べた行番号
+  private final int[] codeIndex;
+  private final long revision;
+  private final Instant loadedAt;
+
+  private CustomerSnapshot(
+      String[] codes,
+      String[] companyNames,
+      String[] billingAddresses,
+      String[] taxCodes,
+      long[] creditLimitCents,
+      boolean[] active,
+      long[] versions,
+      int[] codeIndex,
+      long revision,
+      Instant loadedAt) {
+    this.codes = codes;
+    this.companyNames = companyNames;
+    this.billingAddresses = billingAddresses;
+    this.taxCodes = taxCodes;
+    this.creditLimitCents = creditLimitCents;
+    this.active = active;
+    this.versions = versions;
+    this.codeIndex = codeIndex;
+    this.revision = revision;
+    this.loadedAt = loadedAt;
+  }
+
+  /** revision は読み込みを始める前に取得した customer_master の変更カウンタ */
+  public static Builder builder(long revision) {
+    return new Builder(revision);
+  }
+
+  public int size() {
+    return codes.length;
+  }
+
+  /** 読み込み開始時点の変更カウンタ。内容はこれ以降の変更を含むことはあっても、これより古いことはない */
+  public long getRevision() {
+    return revision;
+  }
+
+  /** 全件を読み込んだ時刻（1件の差し込みでは変わらない） */
+  public Instant getLoadedAt() {
+    return loadedAt;
+  }
+
+  /** 見つからなければ null */
+  public CustomerResponse get(String code) {
+    int row = rowOf(code);
+    return row >= 0 ? toResponse(row) : null;
+  }
+
+  public List<CustomerResponse> all() {
+    return range(0, codes.length);
+  }
+
+  /**
+   * code が after より後ろのものをDBの順で最大 limit 件（after=null は先頭から）。
+   *
+   * <p>after がスナップショットに無い（作成後に削除・登録された）場合は、DBの照合順序での位置が分からないので空を返す（DBで読むこと）。
+   */
+  public Optional<List<CustomerResponse>> pageAfter(String after, int limit) {
+    int from = 0;
+    if (after != null) {
+      int row = rowOf(after);
+      if (row < 0) {
+        return Optional.empty();
+      }
+      from = row + 1;
+    }
+    return Optional.of(range(from, Math.min(from + limit, codes.length)));
+  }
+
+  /** 顧客コードの前方一致（DBの {@code code LIKE 'prefix%'} と同じ）。DBの順で最大 limit 件 */
+  public List<CustomerResponse> findByCodePrefix(String prefix, int limit) {
+    // 前方一致するコードは Java の文字列順では連続して並ぶ
+    int from = lowerBound(prefix);
+    int to = from;
+    int high = codeIndex.length;
+    while (to < high) {
+      int mid = (to + high) >>> 1;
+      if (codes[codeIndex[mid]].startsWith(prefix)) {
+        to = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    List<CustomerResponse> result = new ArrayList<>(Math.min(to - from, limit));
+    if (to - from <= limit) {
+      // 一致が少なければ索引から集めてDBの順（行番号順）に並べる
+      int[] rows = Arrays.copyOfRange(codeIndex, from, to);
+      Arrays.sort(rows);
+      for (int row : rows) {
+        result.add(toResponse(row));
+      }
+    } else {
+      // 一致が多ければDBの順に先頭から見て、limit 件集まったところでやめる
+      for (int row = 0; row < codes.length && result.size() < limit; row++) {
+        if (codes[row].startsWith(prefix)) {
+          result.add(toResponse(row));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * customer を preceding（DBの順で直前の code、先頭なら null）の直後に差し込んだ新しいスナップショット。
+   *
+   * <p>全件を読み直さずに1件の登録を反映するために使う。既に同じコードがある、または preceding が見つからない場合は null。
+   */
+  CustomerSnapshot inserted(CustomerResponse customer, String preceding, long newRevision) {
+    String code = customer.getCode();
+    if (rowOf(code) >= 0) {
+      return null;
+    }
+    int position = 0;
+    if (preceding != null) {
+      int row = rowOf(preceding);
+      if (row < 0) {
+        return null;
+      }
+      position = row + 1;
+    }
+
+    Builder one = new Builder(newRevision).add(customer);
+    int n = codes.length;
+    // 差し込み位置より後ろの行番号は1つずれる。新しい行は Java の文字列順の位置に入れる
+    int indexPosition = lowerBound(code);
+    int[] newIndex = new int[n + 1];
+    for (int i = 0, j = 0; i <= n; i++) {
+      if (i == indexPosition) {
+        newIndex[i] = position;
+      } else {
+        int row = codeIndex[j++];
+        newIndex[i] = row >= position ? row + 1 : row;
+      }
+    }
+    return new CustomerSnapshot(
+        insertAt(codes, position, one.codes[0]),
+        insertAt(companyNames, position, one.companyNames[0]),
+        insertAt(billingAddresses, position, one.billingAddresses[0]),
+        insertAt(taxCodes, position, one.taxCodes[0]),
+        insertAt(creditLimitCents, position, one.creditLimitCents[0]),
+        insertAt(active, position, one.active[0]),
+        insertAt(versions, position, one.versions[0]),
+        newIndex,
+        newRevision,
+        loadedAt);
+  }
+
+  // 行番号（無ければ負）
+  private int rowOf(String code) {
+    int i = lowerBound(code);
+    return i < codeIndex.length && codes[codeIndex[i]].equals(code) ? codeIndex[i] : -1;
+  }
+
+  // Java の文字列順で code 以上になる最初の索引位置
+  private int lowerBound(String code) {
+    int low = 0;
+    int high = codeIndex.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (codes[codeIndex[mid]].compareTo(code) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // 呼び出し側が書き換えても影響しないよう毎回新しいDTOを返す
+  private CustomerResponse toResponse(int row) {
+    return new CustomerResponse(
+        codes[row],
+        companyNames[row],
+        billingAddresses[row],
+        taxCodes[row],
+        BigDecimal.valueOf(creditLimitCents[row], 2),
+        active[row],
+        versions[row]);
+  }
+
+  private List<CustomerResponse> range(int from, int to) {
+    List<CustomerResponse> result = new ArrayList<>(Math.max(to - from, 0));
+    for (int row = from; row < to; row++) {
+      result.add(toResponse(row));
+    }
+    return result;
+  }
+
+  private static String[] insertAt(String[] array, int position, String value) {
+    String[] result = new String[array.length + 1];
+    System.arraycopy(array, 0, result, 0, position);
+    result[position] = value;
+    System.arraycopy(array, position, result, position + 1, array.length - position);
+    return result;
+  }
+
+  private static long[] insertAt(long[] array, int position, long value) {
+    long[] result = new long[array.length + 1];
+    System.arraycopy(array, 0, result, 0, position);
+    result[position] = value;
+    System.arraycopy(array, position, result, position + 1, array.length - position);
+    return result;
+  }
+
+  private static boolean[] insertAt(boolean[] array, int position, boolean value) {
+    boolean[] result = new boolean[array.length + 1];
+    System.arraycopy(array, 0, result, 0, position);
+    result[position] = value;
+    System.arraycopy(array, position, result, position + 1, array.length - position);
+    return result;
+  }
+
+  /** 行を1件ずつ受け取って列の配列に詰める。行はDBの順（{@code ORDER BY code}）で渡すこと（その順のまま一覧に使う） */
+  public static final class Builder {
+
+    private final Map<String, String> interned = new HashMap<>();
+    private String[] codes = new String[1024];
+    private String[] companyNames = new String[1024];
+    private String[] billingAddresses = new String[1024];
+    private String[] taxCodes = new String[1024];
+    private long[] creditLimitCents = new long[1024];
+    private boolean[] active = new boolean[1024];
+    private long[] versions = new long[1024];
+    private final long revision;
+    private int size;
+
+    private Builder(long revision) {
+      this.revision = revision;
+    }
+
+    public Builder add(CustomerResponse customer) {
+      if (size == codes.length) {
+        grow();
+      }
+      codes[size] = customer.getCode();
+      companyNames[size] = customer.getCompanyName() != null ? customer.getCompanyName() : "";
+      billingAddresses[size] = intern(customer.getBillingAddress());
+      taxCodes[size] = intern(customer.getTaxCode());
+      BigDecimal creditLimit = customer.getCreditLimit();
+      creditLimitCents[size] =
+          creditLimit != null
+              ? creditLimit.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+              : 0L;
+      active[size] = Boolean.TRUE.equals(customer.getActive());
+      versions[size] = customer.getVersion() != null ? customer.getVersion() : 0L;
+      size++;
+      return this;
+    }
+
+    public CustomerSnapshot build() {
+      // 行は並べ替えず、コードの検索用に Java の文字列順の索引だけを作る
+      Integer[] byCode = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        byCode[i] = i;
+      }
+      Arrays.sort(byCode, (a, b) -> codes[a].compareTo(codes[b]));
+      int[] codeIndex = new int[size];
+      for (int i = 0; i < size; i++) {
+        codeIndex[i] = byCode[i];
+      }
+
+      return new CustomerSnapshot(
+          Arrays.copyOf(codes, size),
+          Arrays.copyOf(companyNames, size),
+          Arrays.copyOf(billingAddresses, size),
+          Arrays.copyOf(taxCodes, size),
+          Arrays.copyOf(creditLimitCents, size),
+          Arrays.copyOf(active, size),
+          Arrays.copyOf(versions, size),
+          codeIndex,
+          revision,
+          Instant.now());
+    }
+
+    private String intern(String s) {
+      return s == null ? null : interned.computeIfAbsent(s, k -> k);
+    }
+
+    private void grow() {
+      int capacity = codes.length * 2;
+      codes = Arrays.copyOf(codes, capacity);
+      companyNames = Arrays.copyOf(companyNames, capacity);
+      billingAddresses = Arrays.copyOf(billingAddresses, capacity);
+      taxCodes = Arrays.copyOf(taxCodes, capacity);
+      creditLimitCents = Arrays.copyOf(creditLimitCents, capacity);
+      active = Arrays.copyOf(active, capacity);
+      versions = Arrays.copyOf(versions, capacity);
+    }
+  }
+}
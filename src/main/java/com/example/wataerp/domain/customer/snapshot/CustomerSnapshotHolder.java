@@ -0,0 +1,159 @@
+package com.example.wataerp.domain.customer.snapshot;
+
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.repository.CustomerJdbcRepository;
+import com.example.wataerp.domain.customer.service.CustomerExportService;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 現在の {@link CustomerSnapshot} を保持し、定期的に作り直して差し替える。
+ *
+ * <p>作り直しは別スレッドで新しいスナップショットを組み立ててから参照を差し替えるだけなので、読み込み側は待たされない（組み立て中は一時的に
+ * 新旧2つ分のヒープを使う）。{@code wataerp.customer.snapshot.enabled=false}（既定）のときは何も読み込まず、
+ * {@link #current()} は常に空になる。
+ */
+@Component
+public class CustomerSnapshotHolder {
+
+  private static final Logger log = LoggerFactory.getLogger(CustomerSnapshotHolder.class);
+
+  private final CustomerExportService exportService;
+  private final CustomerJdbcRepository customerJdbcRepository;
+  private final boolean enabled;
+  private final AtomicReference<CustomerSnapshot> current = new AtomicReference<>();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile boolean stale;
+
+  public CustomerSnapshotHolder(
+      CustomerExportService exportService,
+      CustomerJdbcRepository customerJdbcRepository,
+      CustomerProperties properties) {
+    this.exportService = exportService;
+    this.customerJdbcRepository = customerJdbcRepository;
+    this.enabled = properties.getSnapshot().isEnabled();
+  }
+
+  /** 無効、または初回の読み込みが終わっていなければ空 */
+  public Optional<CustomerSnapshot> current() {
+    return Optional.ofNullable(current.get());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (enabled) {
+      Thread.ofVirtual().name("customer-snapshot").start(this::refresh);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${wataerp.customer.snapshot.refresh-interval:PT5M}",
+      fixedDelayString = "${wataerp.customer.snapshot.refresh-interval:PT5M}")
+  public void scheduledRefresh() {
+    if (enabled) {
+      refresh();
+    }
+  }
+
+  /** 顧客マスタを更新したときに呼ぶ。トランザクション内ならコミット後に全件を読み直す */
+  public void markStale() {
+    if (enabled) {
+      afterCommit(this::refreshAsync);
+    }
+  }
+
+  /** 顧客を1件登録したときに呼ぶ。全件は読み直さず、コミット後にその1件だけをスナップショットに差し込む */
+  public void markInserted(CustomerResponse customer) {
+    if (enabled) {
+      afterCommit(
+          () -> Thread.ofVirtual().name("customer-snapshot").start(() -> insert(customer)));
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+
+  void insert(CustomerResponse customer) {
+    CustomerSnapshot snapshot = current.get();
+    // 初回の読み込み前・作り直しの最中は全件の読み直しに任せる
+    if (snapshot != null && !refreshing.get()) {
+      try {
+        // スナップショット以降の変更がこの INSERT 1文だけ（変更カウンタが1つ進んだだけ）なら、差し込んだ結果がDBと一致する
+        long revision = customerJdbcRepository.findRevision();
+        if (revision == snapshot.getRevision() + 1) {
+          CustomerSnapshot inserted =
+              snapshot.inserted(
+                  customer,
+                  customerJdbcRepository.findPrecedingCode(customer.getCode()),
+                  revision);
+          if (inserted != null && current.compareAndSet(snapshot, inserted)) {
+            return;
+          }
+        }
+      } catch (DataAccessException e) {
+        log.warn("顧客スナップショットへの差し込みに失敗しました code={}", customer.getCode(), e);
+      }
+    }
+    // 他の変更と重なった・位置が分からないなどで差し込めなければ全件を読み直す
+    refresh();
+  }
+
+  private void refreshAsync() {
+    Thread.ofVirtual().name("customer-snapshot").start(this::refresh);
+  }
+
+  void refresh() {
+    // 作り直し中に来た要求はまとめて、終わったあとにもう1回だけ作り直す
+    if (!refreshing.compareAndSet(false, true)) {
+      stale = true;
+      return;
+    }
+    try {
+      do {
+        stale = false;
+        long start = System.nanoTime();
+        // 変更カウンタは行より先に読む（内容がカウンタより古くなることはないので、一覧の ETag に使える）
+        CustomerSnapshot.Builder builder =
+            CustomerSnapshot.builder(customerJdbcRepository.findRevision());
+        exportService.exportAll(builder::add);
+        CustomerSnapshot snapshot = builder.build();
+        current.set(snapshot);
+        log.info(
+            "顧客スナップショットを更新しました rows={} elapsedMs={}",
+            snapshot.size(),
+            (System.nanoTime() - start) / 1_000_000);
+      } while (stale);
+    } catch (DataAccessException e) {
+      // 失敗したら古いスナップショットのまま次回の定期更新を待つ
+      log.warn("顧客スナップショットの更新に失敗しました", e);
+    } finally {
+      refreshing.set(false);
+    }
+    // 最後の判定と refreshing の解除の間に来た要求を取りこぼさない
+    if (stale) {
+      refreshAsync();
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.wataerp.domain.report.entity;
+
+public enum ReportJobStatus {
+  QUEUED,
+  RUNNING,
+  SUCCEEDED,
+  FAILED
+}
@@ -0,0 +1,39 @@
+package com.example.wataerp.domain.report.entity;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum ReportType {
+  CUSTOMER_XLSX(
+      "customer-xlsx",
+      "customers.xlsx",
+      "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+  CUSTOMER_PDF("customer-pdf", "customers.pdf", "application/pdf");
+
+  // URL上の表記（/api/v1/reports/customer-xlsx）
+  private final String path;
+  private final String fileName;
+  private final String contentType;
+
+  ReportType(String path, String fileName, String contentType) {
+    this.path = path;
+    this.fileName = fileName;
+    this.contentType = contentType;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public static Optional<ReportType> fromPath(String path) {
+    return Arrays.stream(values()).filter(t -> t.path.equals(path)).findFirst();
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.wataerp.domain.report.generator;
+
+import com.example.wataerp.config.ReportProperties;
+import com.example.wataerp.domain.customer.service.CustomerExportService;
+import com.example.wataerp.domain.report.entity.ReportType;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import org.springframework.stereotype.Component;
+
+/** 顧客一覧をHTML（XHTML）に組み立て、openhtmltopdf でPDFにする */
+@Component
+public class CustomerPdfReportGenerator implements ReportGenerator {
+
+  private static final String FONT_FAMILY = "report-font";
+
+  private final CustomerExportService exportService;
+  private final ReportProperties properties;
+
+  public CustomerPdfReportGenerator(
+      CustomerExportService exportService, ReportProperties properties) {
+    this.exportService = exportService;
+    this.properties = properties;
+  }
+
+  @Override
+  public ReportType type() {
+    return ReportType.CUSTOMER_PDF;
+  }
+
+  @Override
+  public void generate(OutputStream out) throws IOException {
+    DecimalFormat amount = new DecimalFormat("#,##0.00");
+    StringBuilder html = new StringBuilder(64 * 1024);
+    html.append("<html><head><meta charset=\"UTF-8\"/><style>")
+        .append("body{font-family:'")
+        .append(FONT_FAMILY)
+        .append("',sans-serif;font-size:9pt}")
+        .append("table{width:100%;border-collapse:collapse}")
+        .append("th,td{border:0.5pt solid #999;padding:2pt 4pt}")
+        .append("td.num{text-align:right}")
+        .append("</style></head><body><h1>顧客一覧</h1><table>")
+        .append("<thead><tr><th>顧客コード</th><th>会社名</th><th>請求先住所</th>")
+        .append("<th>税区分</th><th>与信限度額</th><th>有効</th></tr></thead><tbody>");
+
+    // PDFはDOM全体をメモリに載せて組版するので、行数は pdf-max-rows で打ち切る（0 は無制限）
+    // 実際に打ち切ったかを知るため1行多く読み、その行は出力しない
+    int maxRows = properties.getPdfMaxRows();
+    int[] rows = {0};
+    boolean[] truncated = {false};
+    exportService.exportAll(
+        maxRows > 0 ? maxRows + 1 : 0,
+        customer -> {
+          if (maxRows > 0 && rows[0] == maxRows) {
+            truncated[0] = true;
+            return;
+          }
+          rows[0]++;
+          html.append("<tr><td>")
+              .append(escape(customer.getCode()))
+              .append("</td><td>")
+              .append(escape(customer.getCompanyName()))
+              .append("</td><td>")
+              .append(escape(customer.getBillingAddress()))
+              .append("</td><td>")
+              .append(escape(customer.getTaxCode()))
+              .append("</td><td class=\"num\">")
+              .append(format(amount, customer.getCreditLimit()))
+              .append("</td><td>")
+              .append(Boolean.TRUE.equals(customer.getActive()) ? "有効" : "無効")
+              .append("</td></tr>");
+        });
+    html.append("</tbody></table>");
+    if (truncated[0]) {
+      html.append("<p>※ 先頭").append(maxRows).append("件のみ出力しています。全件はExcel出力を利用してください。</p>");
+    }
+    html.append("</body></html>");
+
+    PdfRendererBuilder builder = new PdfRendererBuilder();
+    builder.useFastMode();
+    if (properties.getPdfFont() != null) {
+      builder.useFont(properties.getPdfFont().toFile(), FONT_FAMILY);
+    }
+    builder.withHtmlContent(html.toString(), null);
+    builder.toStream(out);
+    builder.run();
+  }
+
+  // openhtmltopdf はXHTMLとして読むので、HTMLの名前付き実体参照（&eacute; 等）は使わずXMLの5文字だけ置き換える
+  private static String escape(String s) {
+    if (s == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '&' -> sb.append("&amp;");
+        case '<' -> sb.append("&lt;");
+        case '>' -> sb.append("&gt;");
+        case '"' -> sb.append("&quot;");
+        case '\'' -> sb.append("&#39;");
+        default -> sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String format(DecimalFormat format, BigDecimal value) {
+    return value == null ? "" : format.format(value);
+  }
+}
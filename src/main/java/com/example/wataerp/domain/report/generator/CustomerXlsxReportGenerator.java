@@ -0,0 +1,27 @@
+package com.example.wataerp.domain.report.generator;
+
+import com.example.wataerp.domain.customer.service.CustomerExportService;
+import com.example.wataerp.domain.report.entity.ReportType;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomerXlsxReportGenerator implements ReportGenerator {
+
+  private final CustomerExportService exportService;
+
+  public CustomerXlsxReportGenerator(CustomerExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  @Override
+  public ReportType type() {
+    return ReportType.CUSTOMER_XLSX;
+  }
+
+  @Override
+  public void generate(OutputStream out) throws IOException {
+    exportService.exportXlsx(out);
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.wataerp.domain.report.generator;
+
+import com.example.wataerp.domain.report.entity.ReportType;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** レポート種別ごとの出力処理。ワーカー（仮想スレッド）上で呼ばれる */
+public interface ReportGenerator {
+
+  ReportType type();
+
+  void generate(OutputStream out) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.example.wataerp.domain.report.mapper;
+
+import com.example.wataerp.domain.report.dto.ReportJobResponse;
+import com.example.wataerp.domain.report.entity.ReportJob;
+
+public final class ReportJobMapper {
+
+  private ReportJobMapper() {}
+
+  public static ReportJobResponse toResponse(ReportJob job) {
+    ReportJobResponse res = new ReportJobResponse();
+    res.setId(job.getId());
+    res.setType(job.getReportType().getPath());
+    res.setStatus(job.getStatus().name());
+    res.setCorrelationId(job.getCorrelationId());
+    res.setFileName(job.getFileName());
+    res.setFileSize(job.getFileSize());
+    res.setErrorMessage(job.getErrorMessage());
+    res.setCreatedAt(job.getCreatedAt());
+    res.setStartedAt(job.getStartedAt());
+    res.setFinishedAt(job.getFinishedAt());
+    res.setExpiresAt(job.getExpiresAt());
+    return res;
+  }
+}
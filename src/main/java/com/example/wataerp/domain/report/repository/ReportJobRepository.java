@@ -0,0 +1,32 @@
+package com.example.wataerp.domain.report.repository;
+
+import com.example.wataerp.domain.report.entity.ReportJob;
+import com.example.wataerp.domain.report.entity.ReportJobStatus;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+  // 保持期限切れのジョブ（ファイル削除対象）
+  List<ReportJob> findByExpiresAtBefore(OffsetDateTime now);
+
+  // 再起動で実行中のまま取り残されたジョブを失敗にする
+  @Transactional
+  @Modifying
+  @Query(
+      "update ReportJob j set j.status = :failed, j.errorMessage = :message,"
+          + " j.finishedAt = :now, j.expiresAt = :expiresAt where j.status in :statuses")
+  int failAll(
+      @Param("statuses") Collection<ReportJobStatus> statuses,
+      @Param("failed") ReportJobStatus failed,
+      @Param("message") String message,
+      @Param("now") OffsetDateTime now,
+      @Param("expiresAt") OffsetDateTime expiresAt);
+}
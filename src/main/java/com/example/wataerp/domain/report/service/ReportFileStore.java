@@ -0,0 +1,40 @@
+package com.example.wataerp.domain.report.service;
+
+import com.example.wataerp.config.ReportProperties;
+import com.example.wataerp.domain.report.entity.ReportJob;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/** 生成済みレポートをローカルディスクに置く。ファイル名はジョブIDなので利用者の入力はパスに混ざらない */
+@Component
+public class ReportFileStore {
+
+  private final ReportProperties properties;
+
+  public ReportFileStore(ReportProperties properties) {
+    this.properties = properties;
+  }
+
+  public Path pathOf(UUID jobId) {
+    return properties.getStorageDir().resolve(jobId.toString());
+  }
+
+  /** 書き込み途中のファイル。完了したら {@link #commit} で本来の名前へ移す */
+  public Path newTempFile(UUID jobId) throws IOException {
+    Files.createDirectories(properties.getStorageDir());
+    return properties.getStorageDir().resolve(jobId + ".part");
+  }
+
+  public Path commit(UUID jobId, Path tempFile) throws IOException {
+    return Files.move(tempFile, pathOf(jobId), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public void delete(ReportJob job) throws IOException {
+    Files.deleteIfExists(pathOf(job.getId()));
+    Files.deleteIfExists(properties.getStorageDir().resolve(job.getId() + ".part"));
+  }
+}
@@ -0,0 +1,232 @@
+package com.example.wataerp.domain.report.service;
+
+import com.example.wataerp.config.ReportProperties;
+import com.example.wataerp.domain.report.dto.ReportJobResponse;
+import com.example.wataerp.domain.report.entity.ReportJob;
+import com.example.wataerp.domain.report.entity.ReportJobStatus;
+import com.example.wataerp.domain.report.entity.ReportType;
+import com.example.wataerp.domain.report.generator.ReportGenerator;
+import com.example.wataerp.domain.report.mapper.ReportJobMapper;
+import com.example.wataerp.domain.report.repository.ReportJobRepository;
+import com.example.wataerp.shared.filter.CorrelationIdFilter;
+import com.example.wataerp.shared.id.UuidV7;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 時間のかかるレポート生成を受け付け、リクエストスレッドとは別の仮想スレッドで実行する。
+ *
+ * <p>受付時にジョブIDを返し、状態は report_job テーブルで追跡する。生成物は {@link ReportFileStore} に置き、保持期限を過ぎたら
+ * 定期処理で削除する。ファイルをローカルディスクに置くため、単一インスタンスでの運用を前提とする。
+ */
+@Service
+public class ReportJobService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+  private static final int MAX_ERROR_MESSAGE_LENGTH = 512;
+  private static final int MAX_CORRELATION_ID_LENGTH = 64;
+
+  private final ReportJobRepository reportJobRepository;
+  private final ReportFileStore fileStore;
+  private final ExecutorService reportExecutor;
+  private final ReportProperties properties;
+  private final Map<ReportType, ReportGenerator> generators = new EnumMap<>(ReportType.class);
+  private final Map<ReportType, Semaphore> concurrencyLimits = new EnumMap<>(ReportType.class);
+  private final Semaphore pending;
+
+  public ReportJobService(
+      ReportJobRepository reportJobRepository,
+      ReportFileStore fileStore,
+      @Qualifier("reportExecutor") ExecutorService reportExecutor,
+      ReportProperties properties,
+      List<ReportGenerator> generators) {
+    this.reportJobRepository = reportJobRepository;
+    this.fileStore = fileStore;
+    this.reportExecutor = reportExecutor;
+    this.properties = properties;
+    for (ReportGenerator generator : generators) {
+      this.generators.put(generator.type(), generator);
+    }
+    for (ReportType type : ReportType.values()) {
+      concurrencyLimits.put(type, new Semaphore(properties.concurrencyOf(type)));
+    }
+    this.pending = new Semaphore(properties.getMaxPending());
+  }
+
+  /** ジョブを受け付けて即座に返す。生成はワーカーで行う */
+  public ReportJobResponse submit(ReportType type) {
+    if (!generators.containsKey(type)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "レポート種別が見つかりません: " + type.getPath());
+    }
+    if (!pending.tryAcquire()) {
+      throw new ResponseStatusException(
+          HttpStatus.TOO_MANY_REQUESTS, "受付中のレポートが上限に達しています。しばらくしてから再実行してください。");
+    }
+    try {
+      ReportJob job = new ReportJob();
+      job.setId(UuidV7.next());
+      job.setReportType(type);
+      job.setStatus(ReportJobStatus.QUEUED);
+      // ワーカー側のログも受付リクエストと同じIDで追えるように保存しておく（列は varchar(64)）
+      job.setCorrelationId(
+          truncate(MDC.get(CorrelationIdFilter.MDC_KEY), MAX_CORRELATION_ID_LENGTH));
+      job.setCreatedAt(OffsetDateTime.now());
+      reportJobRepository.save(job);
+
+      // ワーカーは同じエンティティの状態を書き換えるので、応答は投入前に組み立てる（QUEUED の時点の内容）
+      ReportJobResponse response = ReportJobMapper.toResponse(job);
+      reportExecutor.execute(() -> run(job));
+      return response;
+    } catch (RuntimeException e) {
+      pending.release();
+      throw e;
+    }
+  }
+
+  public ReportJobResponse getJob(UUID id) {
+    return ReportJobMapper.toResponse(findJob(id));
+  }
+
+  /** 生成済みファイルを返す。未完了なら409、失敗・期限切れなら404 */
+  public ReportFile getFile(UUID id) {
+    ReportJob job = findJob(id);
+    if (job.getStatus() == ReportJobStatus.QUEUED || job.getStatus() == ReportJobStatus.RUNNING) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "レポートはまだ生成中です: " + id);
+    }
+    Path path = fileStore.pathOf(id);
+    if (job.getStatus() != ReportJobStatus.SUCCEEDED || !Files.exists(path)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "レポートファイルがありません: " + id);
+    }
+    return new ReportFile(path, job.getReportType());
+  }
+
+  public record ReportFile(Path path, ReportType type) {}
+
+  // 保持期限を過ぎたジョブをファイルごと削除する
+  @Scheduled(
+      initialDelayString = "${wataerp.report.cleanup-interval:PT10M}",
+      fixedDelayString = "${wataerp.report.cleanup-interval:PT10M}")
+  public void cleanupExpired() {
+    for (ReportJob job : reportJobRepository.findByExpiresAtBefore(OffsetDateTime.now())) {
+      try {
+        fileStore.delete(job);
+        reportJobRepository.delete(job);
+      } catch (IOException | DataAccessException e) {
+        log.warn("期限切れレポートの削除に失敗しました jobId={}", job.getId(), e);
+      }
+    }
+  }
+
+  // 前回の停止時に実行中だったジョブは再開できないので失敗扱いにする
+  @EventListener(ApplicationReadyEvent.class)
+  public void failInterruptedJobs() {
+    OffsetDateTime now = OffsetDateTime.now();
+    try {
+      int count =
+          reportJobRepository.failAll(
+              List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING),
+              ReportJobStatus.FAILED,
+              "アプリケーションの再起動により中断されました。",
+              now,
+              now.plus(properties.getTtl()));
+      if (count > 0) {
+        log.warn("中断されたレポートジョブを失敗にしました count={}", count);
+      }
+    } catch (DataAccessException e) {
+      log.warn("中断されたレポートジョブの確認に失敗しました", e);
+    }
+  }
+
+  // ---- worker ----
+  // MDC（correlationId）は reportExecutor が受付リクエストから引き継ぐ
+  void run(ReportJob job) {
+    Semaphore limit = concurrencyLimits.get(job.getReportType());
+    try {
+      // 仮想スレッドなので、空きを待つ間ブロックしてもキャリアスレッドは占有しない
+      limit.acquire();
+      try {
+        generate(job);
+      } finally {
+        limit.release();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      finish(job, ReportJobStatus.FAILED, "レポート生成が中断されました。");
+    } finally {
+      pending.release();
+    }
+  }
+
+  private void generate(ReportJob job) {
+    ReportType type = job.getReportType();
+    job.setStatus(ReportJobStatus.RUNNING);
+    job.setStartedAt(OffsetDateTime.now());
+    reportJobRepository.save(job);
+    log.info("レポート生成開始 jobId={} type={}", job.getId(), type.getPath());
+
+    try {
+      Path tempFile = fileStore.newTempFile(job.getId());
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+        generators.get(type).generate(out);
+      }
+      Path file = fileStore.commit(job.getId(), tempFile);
+      job.setFileName(type.getFileName());
+      job.setFileSize(Files.size(file));
+      finish(job, ReportJobStatus.SUCCEEDED, null);
+      log.info("レポート生成完了 jobId={} size={}", job.getId(), job.getFileSize());
+    } catch (Exception e) {
+      log.error("レポート生成失敗 jobId={}", job.getId(), e);
+      finish(
+          job,
+          ReportJobStatus.FAILED,
+          truncate("レポート生成に失敗しました: " + e.getMessage(), MAX_ERROR_MESSAGE_LENGTH));
+      try {
+        fileStore.delete(job);
+      } catch (IOException ignored) {
+        // 期限切れの定期削除で再度消すのでここでは握りつぶす
+      }
+    }
+  }
+
+  private void finish(ReportJob job, ReportJobStatus status, String errorMessage) {
+    OffsetDateTime now = OffsetDateTime.now();
+    job.setStatus(status);
+    job.setErrorMessage(errorMessage);
+    job.setFinishedAt(now);
+    job.setExpiresAt(now.plus(properties.getTtl()));
+    reportJobRepository.save(job);
+  }
+
+  private static String truncate(String value, int maxLength) {
+    return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+  }
+
+  private ReportJob findJob(UUID id) {
+    return reportJobRepository
+        .findById(id)
+        .orElseThrow(
+            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "レポートジョブが見つかりません: " + id));
+  }
+}
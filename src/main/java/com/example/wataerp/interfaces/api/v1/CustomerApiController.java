@@ -1,14 +1,25 @@
 package com.example.wataerp.interfaces.api.v1;
 
+import com.example.wataerp.domain.customer.dto.CustomerBatchRequest;
+import com.example.wataerp.domain.customer.dto.CustomerBatchResponse;
+import com.example.wataerp.domain.customer.dto.CustomerLookupRequest;
+import com.example.wataerp.domain.customer.dto.CustomerPageResponse;
 import com.example.wataerp.domain.customer.dto.CustomerRequest;
 import com.example.wataerp.domain.customer.dto.CustomerResponse;
 import com.example.wataerp.domain.customer.service.CustomerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +28,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
@@ -24,9 +37,16 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 public class CustomerApiController {
 
   private final CustomerService service;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter writer;
 
-  public CustomerApiController(CustomerService service) {
+  public CustomerApiController(CustomerService service, ObjectMapper objectMapper) {
     this.service = service;
+    this.objectMapper = objectMapper;
+    this.writer =
+        objectMapper
+            .writerFor(CustomerResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
   }
 
   @Operation(summary = "顧客の登録", description = "新しい顧客を登録します。")
@@ -48,25 +68,90 @@ public class CustomerApiController {
     return ResponseEntity.created(location).body(response);
   }
 
-  @Operation(summary = "全顧客一覧の取得", description = "全顧客の一覧を取得します。")
+  @Operation(
+      summary = "顧客の一括登録",
+      description = "複数の顧客をまとめて登録します。登録済み・リクエスト内で重複したコードはスキップし、1件ごとの結果を返します。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "処理が完了しました（1件ごとの結果は results を参照）。"),
+    @ApiResponse(responseCode = "400", description = "入力値が不正、または件数が上限を超えています。"),
+    @ApiResponse(responseCode = "409", description = "並行登録により顧客コードが重複しました。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @PostMapping("/batch")
+  public ResponseEntity<CustomerBatchResponse> createBatch(
+      @Valid @RequestBody CustomerBatchRequest request) {
+    return ResponseEntity.ok(service.createBatch(request.getCustomers()));
+  }
+
+  @Operation(
+      summary = "顧客一覧の取得（カーソルページング）",
+      description = "顧客コード昇順で一覧を取得します。次ページはレスポンスの next をcursorに指定します。")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "正常に取得できました。"),
+    @ApiResponse(responseCode = "304", description = "If-None-Match の ETag から変更がありません。"),
+    @ApiResponse(responseCode = "400", description = "カーソルまたは件数が不正です。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping
+  public ResponseEntity<CustomerPageResponse> getCustomerPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest webRequest) {
+    long revision = service.getRevision();
+    String etag = revisionETag(revision);
+    if (webRequest.checkNotModified(etag)) {
+      // 一覧を読まずに 304（ETag ヘッダは checkNotModified が付ける）
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(service.getCustomerPage(cursor, size, revision));
+  }
+
+  @Operation(
+      summary = "全顧客一覧の取得",
+      description = "全顧客の一覧を取得します。件数に比例してメモリを消費するため GET /api/v1/customers を利用してください。",
+      deprecated = true)
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に取得できました。"),
+    @ApiResponse(responseCode = "304", description = "If-None-Match の ETag から変更がありません。"),
     @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
   })
   @GetMapping("/all")
-  public ResponseEntity<List<CustomerResponse>> getAllCustomers() {
-    return ResponseEntity.ok(service.getCustomers(null));
+  public ResponseEntity<List<CustomerResponse>> getAllCustomers(WebRequest webRequest) {
+    long revision = service.getRevision();
+    String etag = revisionETag(revision);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(service.getAllCustomers(revision));
+  }
+
+  @Operation(
+      summary = "顧客の検索（会社名の部分一致・顧客コードの前方一致）",
+      description = "コードが前方一致した顧客を先頭に、会社名の類似度が高い順で最大 limit 件を返します。入力補完向けです。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に検索できました。"),
+    @ApiResponse(responseCode = "400", description = "検索語または件数が不正です。"),
+    @ApiResponse(responseCode = "503", description = "検索がタイムアウトしました。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping("/search")
+  public ResponseEntity<List<CustomerResponse>> search(
+      @RequestParam String q, @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok(service.search(q, limit));
   }
 
   @Operation(summary = "顧客コードによる単一顧客の取得", description = "指定した顧客コードに一致する単一顧客を取得します。")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "正常に取得できました。"),
+    @ApiResponse(responseCode = "304", description = "If-None-Match の ETag から変更がありません。"),
     @ApiResponse(responseCode = "400", description = "入力値が不正です。"),
     @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
   })
   @GetMapping("/{code}")
   public ResponseEntity<CustomerResponse> getCustomerByCode(@PathVariable String code) {
-    return ResponseEntity.ok(service.getCustomer(code));
+    // キャッシュ・スナップショットにあればDBは読まない。If-None-Match が一致すれば本文はシリアライズせずに 304 になる
+    CustomerResponse customer = service.getCustomer(code);
+    return ResponseEntity.ok().eTag(versionETag(customer)).body(customer);
   }
 
   @Operation(summary = "顧客コードによる複数顧客の取得", description = "指定した顧客コードに一致する複数顧客を取得します。")
@@ -80,4 +165,57 @@ public class CustomerApiController {
       @Valid @RequestParam List<String> codes) {
     return ResponseEntity.ok(service.getCustomers(codes));
   }
+
+  @Operation(
+      summary = "顧客コードによる一括照会",
+      description =
+          "リクエストボディのコード一覧（重複可）に一致する顧客を返します。"
+              + "見つからないコードがあってもエラーにせず、{\"found\": [...], \"missing\": [...]} の形で返します。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に照会できました（未登録のコードは missing を参照）。"),
+    @ApiResponse(responseCode = "400", description = "入力値が不正、または件数が上限を超えています。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @PostMapping("/lookup")
+  public ResponseEntity<StreamingResponseBody> lookup(
+      @Valid @RequestBody CustomerLookupRequest request) {
+    // 件数チェックは書き出し前に行い、400を返せるようにする
+    List<String> codes = service.normalizeLookupCodes(request.getCodes());
+
+    StreamingResponseBody body =
+        out -> {
+          JsonGenerator gen = objectMapper.createGenerator(out);
+          gen.writeStartObject();
+          gen.writeArrayFieldStart("found");
+          List<String> missing =
+              service.lookup(
+                  codes,
+                  customer -> {
+                    try {
+                      writer.writeValue(gen, customer);
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                  });
+          gen.writeEndArray();
+          gen.writeArrayFieldStart("missing");
+          for (String code : missing) {
+            gen.writeString(code);
+          }
+          gen.writeEndArray();
+          gen.writeEndObject();
+          gen.flush();
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  // 単一顧客は行バージョンをそのまま強いETagにする（更新のたびに変わる）
+  private static String versionETag(CustomerResponse customer) {
+    return customer.getVersion() != null ? "\"" + customer.getVersion() + "\"" : null;
+  }
+
+  // 一覧は customer_master 全体の変更カウンタ。ページ・件数の違いはURLが別なので区別しなくてよい
+  private static String revisionETag(long revision) {
+    return "\"r" + revision + "\"";
+  }
 }
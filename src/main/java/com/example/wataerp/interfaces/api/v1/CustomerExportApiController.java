@@ -0,0 +1,158 @@
+package com.example.wataerp.interfaces.api.v1;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.service.CustomerExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/customers/export")
+public class CustomerExportApiController {
+
+  private static final MediaType XLSX =
+      MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+  private final CustomerExportService exportService;
+  private final ObjectWriter writer;
+  private final ObjectMapper objectMapper;
+
+  public CustomerExportApiController(CustomerExportService exportService, ObjectMapper objectMapper) {
+    this.exportService = exportService;
+    this.objectMapper = objectMapper;
+    // 1行ごとにflushするとチャンクが細切れになるので、flushはバッファが溜まった時だけにする
+    this.writer =
+        objectMapper
+            .writerFor(CustomerResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  @Operation(
+      summary = "全顧客のストリーミングエクスポート",
+      description = "全顧客を読み込んだ順にレスポンスへ書き出します。format=ndjson（既定）または json（配列）。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に出力できました。"),
+    @ApiResponse(responseCode = "400", description = "formatが不正です。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping
+  public ResponseEntity<StreamingResponseBody> export(
+      @RequestParam(defaultValue = "ndjson") String format) {
+    boolean ndjson =
+        switch (format) {
+          case "ndjson" -> true;
+          case "json" -> false;
+          default ->
+              throw new ResponseStatusException(
+                  HttpStatus.BAD_REQUEST, "formatは ndjson または json を指定してください: " + format);
+        };
+
+    StreamingResponseBody body =
+        out -> {
+          // サーブレットのストリームはSpring側で閉じるので、ここではflushまでにとどめる
+          JsonGenerator gen = objectMapper.createGenerator(out);
+          if (ndjson) {
+            gen.setRootValueSeparator(null);
+          } else {
+            gen.writeStartArray();
+          }
+          exportService.exportAll(
+              customer -> {
+                try {
+                  writer.writeValue(gen, customer);
+                  if (ndjson) {
+                    gen.writeRaw('\n');
+                  }
+                } catch (IOException e) {
+                  // クライアント切断など。例外で抜けてカーソルとトランザクションを閉じる
+                  throw new UncheckedIOException(e);
+                }
+              });
+          if (!ndjson) {
+            gen.writeEndArray();
+          }
+          gen.flush();
+        };
+
+    MediaType contentType = ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+    return ResponseEntity.ok().contentType(contentType).body(body);
+  }
+
+  @Operation(
+      summary = "顧客一覧のExcel出力",
+      description = "全顧客を customers.xlsx として返します。行数に関わらずメモリ使用量は一定です。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に出力できました。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping("/xlsx")
+  public ResponseEntity<StreamingResponseBody> exportXlsx() {
+    StreamingResponseBody body = exportService::exportXlsx;
+    return ResponseEntity.ok()
+        .contentType(XLSX)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("customers.xlsx").build().toString())
+        .body(body);
+  }
+
+  @Operation(
+      summary = "顧客CSVのストリーミング出力",
+      description = "DBの COPY 出力をそのままCSVとして返します。gzip=true で customers.csv.gz として返します。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に出力できました。"),
+    @ApiResponse(responseCode = "400", description = "コード範囲の書式が不正です。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping("/csv")
+  public ResponseEntity<StreamingResponseBody> exportCsv(
+      @RequestParam(defaultValue = "false") boolean activeOnly,
+      @RequestParam(required = false) String codeFrom,
+      @RequestParam(required = false) String codeTo,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+    exportService.checkCodeRange(codeFrom, codeTo);
+
+    StreamingResponseBody body =
+        out -> {
+          if (gzip) {
+            GZIPOutputStream gz = new GZIPOutputStream(out, 64 * 1024);
+            exportService.exportCsv(activeOnly, codeFrom, codeTo, gz);
+            // close するとサーブレットのストリームまで閉じるので finish で止める
+            gz.finish();
+          } else {
+            exportService.exportCsv(activeOnly, codeFrom, codeTo, out);
+          }
+        };
+
+    String filename = gzip ? "customers.csv.gz" : "customers.csv";
+    MediaType contentType =
+        gzip
+            ? MediaType.parseMediaType("application/gzip")
+            : new MediaType("text", "csv", StandardCharsets.UTF_8);
+    return ResponseEntity.ok()
+        .contentType(contentType)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString())
+        .body(body);
+  }
+}
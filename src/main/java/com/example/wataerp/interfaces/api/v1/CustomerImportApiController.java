@@ -0,0 +1,51 @@
+package com.example.wataerp.interfaces.api.v1;
+
+import com.example.wataerp.domain.customer.dto.CustomerImportResponse;
+import com.example.wataerp.domain.customer.service.CustomerImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.io.InputStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/customers/import")
+public class CustomerImportApiController {
+
+  private final CustomerImportService importService;
+
+  public CustomerImportApiController(CustomerImportService importService) {
+    this.importService = importService;
+  }
+
+  @Operation(
+      summary = "顧客のCSV一括取り込み",
+      description =
+          "ヘッダ付きCSV（code, companyName, billingAddress, taxCode, creditLimit）を取り込みます。"
+              + "onConflict=skip（既定）は既存コードを無視、update は既存コードを上書きします。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "取り込みが完了しました（検証エラー行は rejectedRows を参照）。"),
+    @ApiResponse(responseCode = "400", description = "CSVの形式またはパラメータが不正です。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @PostMapping(consumes = "text/csv")
+  public ResponseEntity<CustomerImportResponse> importCsv(
+      InputStream body, @RequestParam(defaultValue = "skip") String onConflict) {
+    CustomerImportService.OnConflict mode =
+        switch (onConflict) {
+          case "skip" -> CustomerImportService.OnConflict.SKIP;
+          case "update" -> CustomerImportService.OnConflict.UPDATE;
+          default ->
+              throw new ResponseStatusException(
+                  HttpStatus.BAD_REQUEST, "onConflictは skip または update を指定してください: " + onConflict);
+        };
+    // リクエストボディはストリームのまま渡し、メモリに読み込まない
+    return ResponseEntity.ok(importService.importCsv(body, mode));
+  }
+}
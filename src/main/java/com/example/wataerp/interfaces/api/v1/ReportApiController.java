@@ -0,0 +1,88 @@
+package com.example.wataerp.interfaces.api.v1;
+
+import com.example.wataerp.domain.report.dto.ReportJobResponse;
+import com.example.wataerp.domain.report.entity.ReportType;
+import com.example.wataerp.domain.report.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.net.URI;
+import java.util.UUID;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+public class ReportApiController {
+
+  private final ReportJobService service;
+
+  public ReportApiController(ReportJobService service) {
+    this.service = service;
+  }
+
+  @Operation(
+      summary = "レポート生成の受付",
+      description = "レポート生成ジョブを受け付け、ジョブIDを返します。type: customer-xlsx / customer-pdf")
+  @ApiResponses({
+    @ApiResponse(responseCode = "202", description = "受け付けました。Location のURLで状態を確認できます。"),
+    @ApiResponse(responseCode = "404", description = "レポート種別が見つかりません。"),
+    @ApiResponse(responseCode = "429", description = "受付中のレポートが上限に達しています。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @PostMapping("/{type}")
+  public ResponseEntity<ReportJobResponse> submit(@PathVariable String type) {
+    ReportType reportType =
+        ReportType.fromPath(type)
+            .orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "レポート種別が見つかりません: " + type));
+    ReportJobResponse response = service.submit(reportType);
+    URI location =
+        ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/v1/reports/{id}")
+            .buildAndExpand(response.getId())
+            .toUri();
+    return ResponseEntity.accepted().location(location).body(response);
+  }
+
+  @Operation(summary = "レポート生成ジョブの状態取得", description = "ジョブの状態（QUEUED/RUNNING/SUCCEEDED/FAILED）を返します。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に取得できました。"),
+    @ApiResponse(responseCode = "404", description = "ジョブが見つかりません。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping("/{id}")
+  public ResponseEntity<ReportJobResponse> getJob(@PathVariable UUID id) {
+    return ResponseEntity.ok(service.getJob(id));
+  }
+
+  @Operation(summary = "レポートファイルのダウンロード", description = "生成が完了したレポートファイルを返します。")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "正常に取得できました。"),
+    @ApiResponse(responseCode = "404", description = "ジョブまたはファイルが見つかりません（失敗・期限切れ）。"),
+    @ApiResponse(responseCode = "409", description = "レポートはまだ生成中です。"),
+    @ApiResponse(responseCode = "500", description = "サーバーエラーが発生しました。")
+  })
+  @GetMapping("/{id}/file")
+  public ResponseEntity<Resource> download(@PathVariable UUID id) {
+    ReportJobService.ReportFile file = service.getFile(id);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(file.type().getContentType()))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(file.type().getFileName()).build().toString())
+        .body(new FileSystemResource(file.path()));
+  }
+}
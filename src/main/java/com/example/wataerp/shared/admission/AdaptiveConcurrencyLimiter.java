@@ -0,0 +1,121 @@
+package com.example.wataerp.shared.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 観測したレイテンシから同時実行数の上限を決め直すリミッタ（Netflix concurrency-limits の Gradient2 を簡略化したもの）。
+ *
+ * <p>処理時間の短期平均と長期平均（平常時の基準）を比べ、短期が {@code tolerance} 倍を超えて遅くなったら上限をその比率で下げ、
+ * そうでなければ √上限 ずつ広げる。DBの空き待ちタイムアウトでは上限を1割下げる（AIMD の乗算的減少）。
+ * 上限を超えた分は待たせずに断るので、DBが遅くなっても待ち行列が伸びず、通したリクエストのレイテンシは抑えられる。
+ *
+ * <p>入場判定は CAS だけで行う。上限の計算は完了ごとにロックの中で行う（数値計算のみで、待ちは発生しない）。
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  // 短期・長期の指数移動平均の重み（長期はおよそ直近500件）
+  private static final double SHORT_WEIGHT = 0.1;
+  private static final double LONG_WEIGHT = 0.002;
+
+  // 失敗したときの上限の縮小率
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double smoothing;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private double estimatedLimit;
+  private double shortRtt;
+  private double longRtt;
+
+  public AdaptiveConcurrencyLimiter(
+      int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("1 <= min-limit <= max-limit にしてください");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.smoothing = smoothing;
+    this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+    this.limit = (int) estimatedLimit;
+  }
+
+  /** 上限に空きがあれば1つ取る。取れたら必ず {@link #release} を呼ぶこと */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 処理の完了を知らせる。
+   *
+   * @param rttNanos 処理にかかった時間
+   * @param dropped 過負荷による失敗（DBの空き待ちタイムアウトなど）。true なら時間は使わず上限を縮める
+   */
+  public void release(long rttNanos, boolean dropped) {
+    int inFlightAtRelease = inFlight.getAndDecrement();
+    lock.lock();
+    try {
+      if (dropped) {
+        setLimit(estimatedLimit * BACKOFF_RATIO);
+      } else {
+        update(rttNanos, inFlightAtRelease);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 処理の完了を知らせるが、上限の計算には使わない（過負荷とは関係のない失敗。時間も平常時の基準にならない） */
+  public void ignore() {
+    inFlight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private void update(double rtt, int inFlightAtRelease) {
+    if (longRtt == 0) {
+      shortRtt = rtt;
+      longRtt = rtt;
+      return;
+    }
+    shortRtt += (rtt - shortRtt) * SHORT_WEIGHT;
+    longRtt += (rtt - longRtt) * LONG_WEIGHT;
+    // 負荷が引いて短期が長期を大きく下回ったら、基準を早めに今の水準へ寄せる
+    if (longRtt > shortRtt * 2) {
+      longRtt *= 0.95;
+    }
+    // 上限の半分も使っていないときは、レイテンシが良くても広げない（使っていない枠を増やし続けない）
+    if (inFlightAtRelease < estimatedLimit / 2) {
+      return;
+    }
+    double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    setLimit(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+  }
+
+  private void setLimit(double newLimit) {
+    estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+    limit = (int) estimatedLimit;
+  }
+}
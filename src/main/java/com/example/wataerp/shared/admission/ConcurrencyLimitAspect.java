@@ -0,0 +1,78 @@
+package com.example.wataerp.shared.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import java.sql.SQLTransientConnectionException;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * {@link ConcurrencyLimited} を付けたメソッドを {@link AdaptiveConcurrencyLimiter} に通す。
+ *
+ * <p>トランザクションの開始（コネクションの取得）より外側で判定するため、最も先に動く順序にする。
+ *
+ * <p>上限を縮める（dropped）のはコネクションを取れなかったときだけ。検索の statement_timeout、一意制約違反、楽観ロックの競合
+ * などは呼び出し側の都合で起きる失敗なので、上限も平常時の基準も変えない（検索のタイムアウトで上限が下がると、1件の参照や
+ * 書き込みまで断ることになる）。
+ */
+@Aspect
+public class ConcurrencyLimitAspect implements Ordered {
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final Counter shed;
+
+  public ConcurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+    this.limiter = limiter;
+    this.shed = meterRegistry.counter("wataerp.concurrency.shed");
+  }
+
+  @Around(
+      "@within(com.example.wataerp.shared.admission.ConcurrencyLimited)"
+          + " || @annotation(com.example.wataerp.shared.admission.ConcurrencyLimited)")
+  public Object limit(ProceedingJoinPoint pjp) throws Throwable {
+    if (!limiter.tryAcquire()) {
+      shed.increment();
+      throw new ConcurrencyLimitExceededException(limiter.getLimit());
+    }
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = pjp.proceed();
+    } catch (Throwable e) {
+      if (isConnectionUnavailable(e)) {
+        limiter.release(System.nanoTime() - start, true);
+      } else {
+        limiter.ignore();
+      }
+      throw e;
+    }
+    limiter.release(System.nanoTime() - start, false);
+    return result;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  // JdbcTemplate はコネクションを取れないと CannotGetJdbcConnectionException を投げる。JPA のトランザクション開始では
+  // CannotCreateTransactionException になるので、Hikari の空き待ちタイムアウト（SQLTransientConnectionException）
+  // が原因のときに限る
+  private static boolean isConnectionUnavailable(Throwable e) {
+    if (e instanceof CannotGetJdbcConnectionException) {
+      return true;
+    }
+    if (e instanceof CannotCreateTransactionException) {
+      for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+        if (t instanceof SQLTransientConnectionException) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.wataerp.shared.admission;
+
+/** 適応的な同時実行数の上限に達したため、処理を始めずに断った */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+  public ConcurrencyLimitExceededException(int limit) {
+    super("同時実行数の上限に達しました: limit=" + limit);
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.wataerp.shared.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 付けたクラスの公開メソッド（またはメソッド単体）を {@link AdaptiveConcurrencyLimiter} の対象にする。
+ *
+ * <p>同時実行数が上限に達していれば呼び出さずに {@link ConcurrencyLimitExceededException} を投げる。
+ *
+ * <p>必ずDBに行くメソッド（repository の参照・書き込みのトランザクション）に付ける。キャッシュから返すこともあるメソッドに付けると、
+ * DBに行かない呼び出しまで枠を取り合い、その短い処理時間でリミッタの平常時の基準が崩れる。Spring Data の repository
+ * インターフェースではメソッドに付ける。
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {}
@@ -0,0 +1,61 @@
+package com.example.wataerp.shared.admission;
+
+import java.util.Set;
+
+/**
+ * 流量制限・バルクヘッドの単位にするAPIの分類。
+ *
+ * <p>重い一覧・一括系が詰まっても、受注入力などの単一参照と書き込みは別枠で通るように分ける。本文を流し続けるダウンロードは
+ * 枠を長く持つので、短時間で終わる一覧・検索とも分ける。
+ */
+public enum EndpointClass {
+  /** 一覧のページ・複数取得・検索（短時間で終わる複数行の読み込み） */
+  LIST,
+  /** 全件・出力・帳票ファイルのダウンロード・一括照会（本文を書き終えるまで枠を持つ） */
+  EXPORT,
+  /** 顧客コード・ジョブIDを指定した1件の参照 */
+  SINGLE,
+  /** 登録・一括登録・取り込み・レポート受付 */
+  WRITE;
+
+  private static final String CUSTOMERS = "/api/v1/customers/";
+  private static final String REPORTS = "/api/v1/reports/";
+  private static final String EXPORTS = "/api/v1/customers/export";
+
+  // /api/v1/customers/{code} と同じ形だが1件の参照ではないもの
+  private static final Set<String> CUSTOMER_COLLECTIONS =
+      Set.of("all", "search", "by-codes", "lookup", "batch", "export", "import");
+
+  /** /api/ 以外（画面・Actuator・Swagger など）は null（制限しない） */
+  public static EndpointClass of(String method, String path) {
+    if (!path.startsWith("/api/")) {
+      return null;
+    }
+    boolean read = "GET".equals(method) || "HEAD".equals(method);
+    if (!read) {
+      // POST /lookup は本文でコードを渡すだけの参照。最大 max-codes 件を流し終えるまで枠を持つので出力と同じ扱い
+      return path.equals(CUSTOMERS + "lookup") ? EXPORT : WRITE;
+    }
+    if (path.equals(EXPORTS)
+        || path.startsWith(EXPORTS + "/")
+        || path.equals(CUSTOMERS + "all")
+        || (path.startsWith(REPORTS) && path.endsWith("/file"))) {
+      return EXPORT;
+    }
+    String customer = lastSegmentAfter(path, CUSTOMERS);
+    if (customer != null && !CUSTOMER_COLLECTIONS.contains(customer)) {
+      return SINGLE;
+    }
+    // /api/v1/reports/{id} は状態の参照
+    return lastSegmentAfter(path, REPORTS) != null ? SINGLE : LIST;
+  }
+
+  // prefix の直後の1セグメントで終わるパスならそのセグメント
+  private static String lastSegmentAfter(String path, String prefix) {
+    if (!path.startsWith(prefix) || path.length() == prefix.length()) {
+      return null;
+    }
+    String segment = path.substring(prefix.length());
+    return segment.indexOf('/') < 0 ? segment : null;
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.wataerp.shared.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * クライアントごとのトークンバケット。
+ *
+ * <p>バケットの状態は「次のトークンが溜まりきる予定時刻」（GCRA の理論到着時刻）の long 1個で、更新は CAS だけで行う（ロックなし）。
+ * 毎秒 rate 個補充され、最大 burst 個まで続けて通す。しばらく来ていないクライアントの状態は満タンと同じなので、
+ * Caffeine の期限切れで捨てる（クライアント数が多くてもメモリは上限で止まる）。
+ */
+public class RateLimiter {
+
+  // 保持するクライアント数の上限（溢れて捨てられたクライアントは満タンから数え直しになる）
+  private static final long MAX_CLIENTS = 100_000;
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final LongSupplier clock;
+  private final Cache<String, AtomicLong> buckets;
+
+  public RateLimiter(double ratePerSecond, int burst) {
+    this(ratePerSecond, burst, System::nanoTime);
+  }
+
+  RateLimiter(double ratePerSecond, int burst, LongSupplier clock) {
+    if (ratePerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("rate は正、burst は1以上にしてください");
+    }
+    this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+    this.burstNanos = intervalNanos * burst;
+    this.clock = clock;
+    this.buckets =
+        Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofNanos(burstNanos).plusSeconds(1))
+            .maximumSize(MAX_CLIENTS)
+            .build();
+  }
+
+  /**
+   * 1トークン取る。
+   *
+   * @return 0 なら通してよい。正の値なら拒否で、次にトークンが取れるまでのナノ秒
+   */
+  public long tryAcquire(String client) {
+    AtomicLong tat = buckets.get(client, k -> new AtomicLong(clock.getAsLong()));
+    long now = clock.getAsLong();
+    while (true) {
+      long prev = tat.get();
+      // 予定時刻が過去なら、空いていた分はバケット満杯として扱う
+      long next = (prev - now < 0 ? now : prev) + intervalNanos;
+      long wait = next - now - burstNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (tat.compareAndSet(prev, next)) {
+        return 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.wataerp.shared.concurrent;
+
+import com.example.wataerp.shared.sql.SqlStatsRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 投入元スレッドの MDC を引き継いで実行する {@link ExecutorService}。
+ *
+ * <p>Spring の TaskExecutor でない Executor（{@code Executors.newThreadPerTaskExecutor} など）を Bean
+ * にするときに包む。{@code submit} / {@code invokeAll} も {@link #execute} を通るので、どの投入方法でも
+ * {@link MdcTaskDecorator} が効く。
+ *
+ * <p>投入元のリクエストより長く動く処理（帳票ジョブなど）に使うので、SQL計測の計測ID（{@link SqlStatsRegistry#MDC_KEY}）は
+ * 引き継がない。引き継ぐと、リクエストの計測が終わる前に実行したSQLがそのリクエストに数えられてしまう。
+ */
+public class MdcExecutorService extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final MdcTaskDecorator decorator =
+      new MdcTaskDecorator(Set.of(SqlStatsRegistry.MDC_KEY));
+
+  public MdcExecutorService(ExecutorService delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(decorator.decorate(command));
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
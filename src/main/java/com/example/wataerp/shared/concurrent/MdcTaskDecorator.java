@@ -0,0 +1,51 @@
+package com.example.wataerp.shared.concurrent;
+
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 投入元スレッドの MDC（correlationId など）を実行スレッドへ引き継ぐ。
+ *
+ * <p>MDC はスレッドローカルなので、{@code @Async} や StreamingResponseBody のように別スレッドで動く処理では何もしないと空になる。
+ * 仮想スレッドは使い捨てなので残留はしないが、プラットフォームスレッドのプールでも前のタスクの値が残らないよう実行後に元へ戻す。
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+  private final Set<String> excludedKeys;
+
+  public MdcTaskDecorator() {
+    this(Set.of());
+  }
+
+  /** excludedKeys は引き継がない（投入元のリクエストが終わった後も動く処理に、リクエスト単位の値を持ち込まないため） */
+  public MdcTaskDecorator(Set<String> excludedKeys) {
+    this.excludedKeys = excludedKeys;
+  }
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    Map<String, String> context = MDC.getCopyOfContextMap();
+    if (context != null && !excludedKeys.isEmpty()) {
+      context.keySet().removeAll(excludedKeys);
+    }
+    return () -> {
+      Map<String, String> previous = MDC.getCopyOfContextMap();
+      setContext(context);
+      try {
+        runnable.run();
+      } finally {
+        setContext(previous);
+      }
+    };
+  }
+
+  private static void setContext(Map<String, String> context) {
+    if (context == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(context);
+    }
+  }
+}
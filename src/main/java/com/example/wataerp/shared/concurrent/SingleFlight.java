@@ -0,0 +1,90 @@
+package com.example.wataerp.shared.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 同じキーの処理が実行中なら、新しく実行せずにその結果を待って共有する（Go の singleflight と同じ考え方）。
+ *
+ * <p>キャッシュが空の人気キー（デプロイ直後など）に同時に来た参照を、DBへの問い合わせ1回にまとめるために使う。
+ * 結果は実行中の間だけ共有し、保持はしない（保持するのはキャッシュの役目）。実行した側が例外で終わった場合は、待っていた側にも同じ例外を投げる。
+ *
+ * <p>待つ側は waitTimeout までしか待たず、超えたら {@link SingleFlightTimeoutException} を投げる（503）。実行した側が
+ * 遅いSQLで止まっても、合流した呼び出しがいつまでもスレッドを塞がないようにする。
+ *
+ * <p>件数は {@code wataerp.singleflight.calls}（name タグ、result=executed / coalesced）、待ちきれなかった件数は
+ * {@code wataerp.singleflight.timeouts} に出す。
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final String name;
+  private final Duration waitTimeout;
+  private final Counter executed;
+  private final Counter coalesced;
+  private final Counter timeouts;
+
+  public SingleFlight(String name, Duration waitTimeout) {
+    this.name = name;
+    this.waitTimeout = waitTimeout;
+    this.executed =
+        Metrics.counter("wataerp.singleflight.calls", "name", name, "result", "executed");
+    this.coalesced =
+        Metrics.counter("wataerp.singleflight.calls", "name", name, "result", "coalesced");
+    this.timeouts = Metrics.counter("wataerp.singleflight.timeouts", "name", name);
+  }
+
+  public V execute(K key, Supplier<V> loader) {
+    CompletableFuture<V> mine = new CompletableFuture<>();
+    CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+    if (running != null) {
+      coalesced.increment();
+      return await(running);
+    }
+    executed.increment();
+    try {
+      V value = loader.get();
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      // 完了後に来た呼び出しは新しく実行する（古い結果を使い回さない）
+      inFlight.remove(key, mine);
+    }
+  }
+
+  /** 実行中のキーの数（テスト・監視用） */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private V await(CompletableFuture<V> running) {
+    try {
+      return running.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      timeouts.increment();
+      throw new SingleFlightTimeoutException(name, waitTimeout);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      if (e.getCause() instanceof Error err) {
+        throw err;
+      }
+      throw new CompletionException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.wataerp.shared.concurrent;
+
+import java.time.Duration;
+
+/** 実行中の同じキーの処理に合流したが、待ち時間の上限までに終わらなかった */
+public class SingleFlightTimeoutException extends RuntimeException {
+
+  public SingleFlightTimeoutException(String name, Duration waitTimeout) {
+    super("実行中の処理を待ちきれませんでした: name=" + name + " waitTimeout=" + waitTimeout);
+  }
+}
@@ -2,18 +2,25 @@ package com.example.wataerp.shared.error;
 
 import static java.util.stream.Collectors.toList;
 
+import com.example.wataerp.shared.admission.ConcurrencyLimitExceededException;
+import com.example.wataerp.shared.concurrent.SingleFlightTimeoutException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.slf4j.MDC;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -24,12 +31,26 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
-  // 共通のエラーボディ作成
+  /** ハンドラが返したエラーレスポンスの件数（tags: status, outcome, exception） */
+  public static final String ERRORS_METRIC = "wataerp.api.errors";
+
+  // 共通のエラーボディ作成（あわせてステータス・例外ごとのエラー件数を数える）
   private ResponseEntity<ApiError> build(
+      Exception ex,
       HttpStatus status,
       String message,
       HttpServletRequest req,
       List<ApiError.Violation> violations) {
+    // Spring Boot のレジストリは既定でグローバルレジストリに登録されるので、ここから数えれば /actuator/prometheus に出る
+    Metrics.counter(
+            ERRORS_METRIC,
+            "status",
+            String.valueOf(status.value()),
+            "outcome",
+            status.series().name(),
+            "exception",
+            ex.getClass().getSimpleName())
+        .increment();
     String correlationId = MDC.get("correlationId");
     ApiError body =
         new ApiError(
@@ -49,7 +70,7 @@ public class ApiExceptionHandler {
       ResponseStatusException ex, HttpServletRequest req) {
     HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
     return build(
-        status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR, ex.getReason(), req, null);
+        ex, status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR, ex.getReason(), req, null);
   }
 
   // 2) @RequestBody の Bean Validation エラー
@@ -63,7 +84,7 @@ public class ApiExceptionHandler {
                     new ApiError.Violation(
                         fe.getField(), fe.getDefaultMessage(), fe.getRejectedValue()))
             .collect(toList());
-    return build(HttpStatus.BAD_REQUEST, "入力値が不正です。", req, violations);
+    return build(ex, HttpStatus.BAD_REQUEST, "入力値が不正です。", req, violations);
   }
 
   // 3) @RequestParam / @PathVariable の検証エラー
@@ -77,7 +98,7 @@ public class ApiExceptionHandler {
                     new ApiError.Violation(
                         v.getPropertyPath().toString(), v.getMessage(), v.getInvalidValue()))
             .collect(toList());
-    return build(HttpStatus.BAD_REQUEST, "入力値が不正です。", req, violations);
+    return build(ex, HttpStatus.BAD_REQUEST, "入力値が不正です。", req, violations);
   }
 
   // 4) JSONのパース失敗・型不一致など
@@ -99,40 +120,88 @@ public class ApiExceptionHandler {
       violations = List.of(new ApiError.Violation(fieldPath, reason, rejected));
     }
     // 他のJSON構文エラー等は共通メッセージのみ
-    return build(HttpStatus.BAD_REQUEST, "リクエストボディの形式が不正です。", req, violations);
+    return build(ex, HttpStatus.BAD_REQUEST, "リクエストボディの形式が不正です。", req, violations);
   }
 
   // 5) 必須クエリパラメータ不足
   @ExceptionHandler(MissingServletRequestParameterException.class)
   public ResponseEntity<ApiError> handleMissingParam(
       MissingServletRequestParameterException ex, HttpServletRequest req) {
-    return build(HttpStatus.BAD_REQUEST, "必須パラメータが不足しています: " + ex.getParameterName(), req, null);
+    return build(
+        ex, HttpStatus.BAD_REQUEST, "必須パラメータが不足しています: " + ex.getParameterName(), req, null);
   }
 
   // 6) メソッド不一致（POSTにGETした等）
   @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
   public ResponseEntity<ApiError> handleMethodNotSupported(
       HttpRequestMethodNotSupportedException ex, HttpServletRequest req) {
-    return build(HttpStatus.METHOD_NOT_ALLOWED, "許可されていないHTTPメソッドです。", req, null);
+    return build(ex, HttpStatus.METHOD_NOT_ALLOWED, "許可されていないHTTPメソッドです。", req, null);
   }
 
-  // 7) DB制約違反（ユニーク制約など）
+  // 7) DB制約違反（NOT NULL・桁数・外部キーなど。顧客コードの重複はサービス側で個別のメッセージにする）
   @ExceptionHandler(DataIntegrityViolationException.class)
   public ResponseEntity<ApiError> handleDataIntegrity(
       DataIntegrityViolationException ex, HttpServletRequest req) {
-    return build(HttpStatus.CONFLICT, "データ整合性エラーが発生しました。", req, null);
+    return build(ex, HttpStatus.CONFLICT, "データ整合性エラーが発生しました。", req, null);
+  }
+
+  // 7-2) 楽観ロック失敗（読み込み後に他で更新された行を更新しようとした）
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiError> handleOptimisticLock(
+      OptimisticLockingFailureException ex, HttpServletRequest req) {
+    return build(
+        ex, HttpStatus.CONFLICT, "他の利用者が先に更新しました。最新の内容を取得して再実行してください。", req, null);
   }
 
   // 8) ルート未定義（404）— 有効化設定が必要（下記参照）
   @ExceptionHandler(NoHandlerFoundException.class)
   public ResponseEntity<ApiError> handleNoHandler(
       NoHandlerFoundException ex, HttpServletRequest req) {
-    return build(HttpStatus.NOT_FOUND, "エンドポイントが見つかりません。", req, null);
+    return build(ex, HttpStatus.NOT_FOUND, "エンドポイントが見つかりません。", req, null);
+  }
+
+  // 9) DBコネクションを取れなかった → 503
+  // 「混雑」はプールの空き待ちタイムアウト（Hikari の connection-timeout 超過）のときだけ。DB停止・認証失敗・通信断は別の文言にする
+  @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+  public ResponseEntity<ApiError> handleNoConnection(Exception ex, HttpServletRequest req) {
+    String message =
+        isPoolExhausted(ex)
+            ? "混雑しています。しばらくしてから再実行してください。"
+            : "データベースに接続できません。しばらくしてから再実行してください。";
+    return build(ex, HttpStatus.SERVICE_UNAVAILABLE, message, req, null);
+  }
+
+  // Hikari は空き待ちのタイムアウトを SQLTransientConnectionException で投げる。
+  // 新しい接続の作成に失敗し続けている（DBに届かない）場合は、その最後の失敗が cause に付く
+  private static boolean isPoolExhausted(Exception ex) {
+    for (Throwable t = ex.getCause(); t != null; t = t.getCause()) {
+      if (t instanceof SQLTransientConnectionException) {
+        return t.getCause() == null;
+      }
+    }
+    return false;
+  }
+
+  // 9-2) 同時実行数の上限（DBが遅くなって自動で絞った）で処理を始めずに断った、
+  //      または実行中の同じ参照に合流したが待ちきれなかった → 503
+  @ExceptionHandler({ConcurrencyLimitExceededException.class, SingleFlightTimeoutException.class})
+  public ResponseEntity<ApiError> handleConcurrencyLimit(
+      RuntimeException ex, HttpServletRequest req) {
+    ResponseEntity<ApiError> res =
+        build(
+            ex,
+            HttpStatus.SERVICE_UNAVAILABLE,
+            "混雑しています。しばらくしてから再実行してください。",
+            req,
+            null);
+    return ResponseEntity.status(res.getStatusCode())
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(res.getBody());
   }
 
-  // 9) 最後の砦（想定外 500）
+  // 10) 最後の砦（想定外 500）
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ApiError> handleOthers(Exception ex, HttpServletRequest req) {
-    return build(HttpStatus.INTERNAL_SERVER_ERROR, "サーバーエラーが発生しました。", req, null);
+    return build(ex, HttpStatus.INTERNAL_SERVER_ERROR, "サーバーエラーが発生しました。", req, null);
   }
 }
@@ -0,0 +1,187 @@
+package com.example.wataerp.shared.filter;
+
+import com.example.wataerp.config.AdmissionProperties;
+import com.example.wataerp.shared.admission.EndpointClass;
+import com.example.wataerp.shared.admission.RateLimiter;
+import com.example.wataerp.shared.error.ApiError;
+import com.example.wataerp.shared.error.ApiExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * APIの受け付け制御。クライアントごとの流量制限（{@link RateLimiter}）と、分類（{@link EndpointClass}）ごとの同時実行数の上限（バルクヘッド）。
+ *
+ * <p>どちらも待たずにすぐ 429（{@code Retry-After} 付き、本文は {@link ApiError}）を返し、コネクションプールの空き待ちに並ばせない。
+ * 一覧・一括系が上限に達しても、単一参照・書き込みは別枠なので影響を受けない。拒否した件数は {@code
+ * wataerp.admission.rejected}（endpoint・reason タグ）と、他のエラーと同じ {@link ApiExceptionHandler#ERRORS_METRIC}
+ * に出す。
+ *
+ * <p>クライアントは認証済みならユーザー名、それ以外は接続元アドレスで見分ける（クライアントが自由に付けられるヘッダは使わない）。
+ * 接続元アドレスはプロキシ経由なら {@code server.forward-headers-strategy} で信頼するプロキシの X-Forwarded-For に置き換わる。
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  public static final String REJECTED_METRIC = "wataerp.admission.rejected";
+
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final Map<EndpointClass, RateLimiter> rateLimiters = new EnumMap<>(EndpointClass.class);
+  private final Map<EndpointClass, Semaphore> bulkheads = new EnumMap<>(EndpointClass.class);
+
+  public AdmissionControlFilter(
+      AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    for (EndpointClass endpointClass : EndpointClass.values()) {
+      AdmissionProperties.Limit limit = properties.limitOf(endpointClass);
+      rateLimiters.put(endpointClass, new RateLimiter(limit.getRate(), limit.getBurst()));
+      int concurrency = limit.getConcurrency();
+      Semaphore bulkhead = new Semaphore(concurrency);
+      bulkheads.put(endpointClass, bulkhead);
+      Gauge.builder(
+              "wataerp.admission.in-flight", bulkhead, b -> concurrency - b.availablePermits())
+          .tag("endpoint", tagOf(endpointClass))
+          .register(meterRegistry);
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    EndpointClass endpointClass = EndpointClass.of(request.getMethod(), path);
+    if (endpointClass == null) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    // 同時実行数の枠を先に取る（枠が無くて断ったリクエストでクライアントの流量を減らさない）
+    Semaphore bulkhead = bulkheads.get(endpointClass);
+    if (!bulkhead.tryAcquire()) {
+      reject(
+          request,
+          response,
+          endpointClass,
+          "bulkhead",
+          TimeUnit.SECONDS.toNanos(1),
+          "混雑しています。しばらくしてから再実行してください。");
+      return;
+    }
+
+    long waitNanos = rateLimiters.get(endpointClass).tryAcquire(clientOf(request));
+    if (waitNanos > 0) {
+      bulkhead.release();
+      reject(
+          request,
+          response,
+          endpointClass,
+          "rate_limit",
+          waitNanos,
+          "リクエストが多すぎます。しばらくしてから再実行してください。");
+      return;
+    }
+
+    boolean releaseOnComplete = false;
+    try {
+      chain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        // ストリーミング出力などは本文を書き終えるまで枠を持ち続ける
+        request.getAsyncContext().addListener(new ReleaseOnComplete(bulkhead));
+        releaseOnComplete = true;
+      }
+    } finally {
+      if (!releaseOnComplete) {
+        bulkhead.release();
+      }
+    }
+  }
+
+  private static String clientOf(HttpServletRequest request) {
+    Principal principal = request.getUserPrincipal();
+    return principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+  }
+
+  private void reject(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      EndpointClass endpointClass,
+      String reason,
+      long waitNanos,
+      String message)
+      throws IOException {
+    HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+    meterRegistry
+        .counter(REJECTED_METRIC, "endpoint", tagOf(endpointClass), "reason", reason)
+        .increment();
+    // ハンドラを通らないので、エラー件数はここで数える（タグは ApiExceptionHandler と同じ）
+    meterRegistry
+        .counter(
+            ApiExceptionHandler.ERRORS_METRIC,
+            "status",
+            String.valueOf(status.value()),
+            "outcome",
+            status.series().name(),
+            "exception",
+            "none")
+        .increment();
+
+    // 秒単位に切り上げる（0 秒だと即時の再送を促してしまう）
+    long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    ApiError body =
+        new ApiError(
+            status.value(),
+            status.getReasonPhrase(),
+            message,
+            request.getRequestURI(),
+            OffsetDateTime.now().toString(),
+            null,
+            MDC.get(CorrelationIdFilter.MDC_KEY));
+    objectMapper.writeValue(response.getOutputStream(), body);
+  }
+
+  private static String tagOf(EndpointClass endpointClass) {
+    return endpointClass.name().toLowerCase(Locale.ROOT);
+  }
+
+  private record ReleaseOnComplete(Semaphore bulkhead) implements AsyncListener {
+
+    // タイムアウト・エラーでも最後に onComplete が呼ばれる
+    @Override
+    public void onComplete(AsyncEvent event) {
+      bulkhead.release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {}
+
+    @Override
+    public void onError(AsyncEvent event) {}
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
+  }
+}
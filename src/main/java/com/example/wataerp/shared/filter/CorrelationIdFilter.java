@@ -1,11 +1,11 @@
 package com.example.wataerp.shared.filter;
 
+import com.example.wataerp.shared.id.Ulid;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.regex.Pattern;
 import org.slf4j.MDC;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -18,6 +18,10 @@ public class CorrelationIdFilter implements Filter {
   public static final String HEADER_NAME = "X-Correlation-Id";
   public static final String MDC_KEY = "correlationId";
 
+  // ログ・レスポンスヘッダ・ジョブの記録にそのまま出すので、長さと使える文字を絞る
+  static final int MAX_LENGTH = 64;
+  private static final Pattern VALID = Pattern.compile("[A-Za-z0-9_-]+");
+
   @Override
   public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
       throws IOException, ServletException {
@@ -25,10 +29,11 @@ public class CorrelationIdFilter implements Filter {
     HttpServletRequest req = (HttpServletRequest) request;
     HttpServletResponse res = (HttpServletResponse) response;
 
-    String cid =
-        Optional.ofNullable(req.getHeader(HEADER_NAME))
-            .filter(s -> !s.isBlank())
-            .orElse(UUID.randomUUID().toString());
+    // 上流から受け取ったIDは書式が正しければそのまま使う。無い・不正なら ULID（時刻順・スレッドローカルの乱数）で採番し直す
+    String cid = req.getHeader(HEADER_NAME);
+    if (!isValid(cid)) {
+      cid = Ulid.next();
+    }
 
     res.setHeader(HEADER_NAME, cid);
     MDC.put(MDC_KEY, cid);
@@ -38,4 +43,9 @@ public class CorrelationIdFilter implements Filter {
       MDC.remove(MDC_KEY);
     }
   }
+
+  /** 64文字以内で、英数字・{@code -}・{@code _} だけからなること */
+  static boolean isValid(String cid) {
+    return cid != null && cid.length() <= MAX_LENGTH && VALID.matcher(cid).matches();
+  }
 }
@@ -0,0 +1,174 @@
+package com.example.wataerp.shared.filter;
+
+import com.example.wataerp.config.SqlStatsProperties;
+import com.example.wataerp.shared.id.Ulid;
+import com.example.wataerp.shared.sql.SqlStats;
+import com.example.wataerp.shared.sql.SqlStatsRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * リクエストごとにSQLの実行数・行数・DB時間を集計し、メトリクスに記録する。
+ *
+ * <p>行数は {@code wataerp.sql-stats.count-rows=true} のときだけ記録する。
+ * {@code wataerp.sql-stats.response-headers=true} のときはレスポンスヘッダでも返す（ヘッダはレスポンスの確定時点の値。
+ * StreamingResponseBody のように確定後に実行したSQLはメトリクスにだけ入る）。同じSQL文が閾値以上実行されたら N+1
+ * の疑いとして警告ログを出す。
+ *
+ * <p>集計はリクエストごとにここで採番する計測IDで引く。上流から受け取る correlationId は同時に同じ値が来得るので、
+ * 別のリクエストのSQLが混ざらないよう使わない。
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+  public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+  public static final String ROWS_HEADER = "X-Sql-Rows";
+  public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+  private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+  private final SqlStatsRegistry registry;
+  private final SqlStatsProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  public SqlStatsFilter(
+      SqlStatsRegistry registry, SqlStatsProperties properties, MeterRegistry meterRegistry) {
+    this.registry = registry;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String key = Ulid.next();
+    String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+    MDC.put(SqlStatsRegistry.MDC_KEY, key);
+    SqlStats stats = registry.start(key);
+    HeaderWritingResponse headers =
+        properties.isResponseHeaders()
+            ? new HeaderWritingResponse(response, stats, properties.isCountRows())
+            : null;
+    try {
+      chain.doFilter(request, headers != null ? headers : response);
+    } finally {
+      MDC.remove(SqlStatsRegistry.MDC_KEY);
+      if (headers != null) {
+        // 本文なし（304・204 など）でまだ確定していない場合
+        headers.writeHeaders();
+      }
+      if (request.isAsyncStarted()) {
+        // 非同期処理（StreamingResponseBody）の終了まで数え続ける
+        request
+            .getAsyncContext()
+            .addListener(
+                new AsyncListener() {
+                  @Override
+                  public void onComplete(AsyncEvent event) {
+                    complete(request, key, correlationId, stats);
+                  }
+
+                  @Override
+                  public void onTimeout(AsyncEvent event) {}
+
+                  @Override
+                  public void onError(AsyncEvent event) {}
+
+                  @Override
+                  public void onStartAsync(AsyncEvent event) {}
+                });
+      } else {
+        complete(request, key, correlationId, stats);
+      }
+    }
+  }
+
+  private void complete(
+      HttpServletRequest request, String key, String correlationId, SqlStats stats) {
+    registry.finish(key, stats);
+    if (stats.getStatements() == 0) {
+      return;
+    }
+
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+    DistributionSummary.builder("wataerp.sql.statements")
+        .baseUnit("statements")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(stats.getStatements());
+    if (properties.isCountRows()) {
+      DistributionSummary.builder("wataerp.sql.rows")
+          .baseUnit("rows")
+          .tags(tags)
+          .register(meterRegistry)
+          .record(stats.getRows());
+    }
+    Timer.builder("wataerp.sql.time")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+    Map<String, Long> repeated =
+        stats.getRepeatedStatements(properties.getRepeatedStatementThreshold());
+    if (!repeated.isEmpty()) {
+      meterRegistry.counter("wataerp.sql.repeated", tags).increment();
+      log.warn(
+          "同じSQLが繰り返し実行されています（N+1の疑い） correlationId={} {} {} {} repeated={}",
+          correlationId,
+          request.getMethod(),
+          uri,
+          stats,
+          repeated);
+    }
+  }
+
+  /** レスポンスの確定時に集計をヘッダへ書く */
+  private static final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+    private final SqlStats stats;
+    private final boolean countRows;
+    private boolean written;
+
+    HeaderWritingResponse(HttpServletResponse response, SqlStats stats, boolean countRows) {
+      super(response);
+      this.stats = stats;
+      this.countRows = countRows;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+      writeHeaders();
+    }
+
+    void writeHeaders() {
+      if (written || isCommitted()) {
+        return;
+      }
+      written = true;
+      setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+      if (countRows) {
+        setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+      }
+      setHeader(TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+    }
+  }
+}
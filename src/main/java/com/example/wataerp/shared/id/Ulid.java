@@ -0,0 +1,62 @@
+package com.example.wataerp.shared.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ULID 形式（26文字の Crockford Base32）の文字列IDを採番する。相関ID（X-Correlation-Id）に使う。
+ *
+ * <p>先頭10文字がミリ秒のUNIX時刻なので、ログやヘッダの値を文字列のまま並べると発生順（ミリ秒単位）になる。
+ * 残りの80ビットは {@link ThreadLocalRandom} から取るため、{@link UUID#randomUUID()} のように全スレッドで
+ * 1個の {@code SecureRandom} を取り合わない。推測されても困らない用途（ログの突き合わせ）専用で、主キーや外部に渡すIDには
+ * {@link UuidV7} を使う。
+ */
+public final class Ulid {
+
+  private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+  static final int LENGTH = 26;
+
+  private static final long MASK_40 = (1L << 40) - 1;
+
+  private Ulid() {}
+
+  public static String next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return of(System.currentTimeMillis(), random.nextLong(), random.nextLong());
+  }
+
+  /** ULID の先頭に埋め込まれたミリ秒の時刻 */
+  public static long timestampMillis(String ulid) {
+    long millis = 0;
+    for (int i = 0; i < 10; i++) {
+      millis = (millis << 5) | decode(ulid.charAt(i));
+    }
+    return millis;
+  }
+
+  // 時刻48ビット（10文字）＋ 乱数40ビット × 2（8文字ずつ）
+  static String of(long millis, long random1, long random2) {
+    char[] chars = new char[LENGTH];
+    encode(chars, 0, 10, millis);
+    encode(chars, 10, 8, random1 & MASK_40);
+    encode(chars, 18, 8, random2 & MASK_40);
+    return new String(chars);
+  }
+
+  private static void encode(char[] chars, int offset, int length, long value) {
+    for (int i = offset + length - 1; i >= offset; i--) {
+      chars[i] = ALPHABET[(int) (value & 31)];
+      value >>>= 5;
+    }
+  }
+
+  private static int decode(char c) {
+    for (int i = 0; i < ALPHABET.length; i++) {
+      if (ALPHABET[i] == c) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("ULID に使えない文字です: " + c);
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.wataerp.shared.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 時刻順に並ぶ UUID（RFC 9562 の version 7）を採番する。
+ *
+ * <p>先頭48ビットがミリ秒のUNIX時刻なので、主キーの B-tree には常に右端へ追記される（{@link UUID#randomUUID()}
+ * のように索引全体へ散らばらない）。同じミリ秒内は続く12ビットをカウンタとして進めるため、このJVM内では必ず単調増加する。
+ * カウンタの更新は CAS だけで行い、ロックは取らない。
+ *
+ * <p>1ミリ秒に4096件を超えた場合や時計が戻った場合は、時刻部分を実時間より先へ進めて単調性を保つ。
+ * 残りの62ビットは {@link UUID#randomUUID()} と同じく {@link SecureRandom} から取るので、外部に渡すID（レポートジョブ）にも使える。
+ */
+public final class UuidV7 {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  // ミリ秒 << 12 | カウンタ（12ビット）
+  private static final AtomicLong LAST = new AtomicLong();
+
+  private UuidV7() {}
+
+  public static UUID next() {
+    long state = nextState(System.currentTimeMillis());
+    long msb = ((state >>> 12) << 16) | 0x7000L | (state & 0xFFFL);
+    long lsb = (RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+    return new UUID(msb, lsb);
+  }
+
+  /** UUIDv7 に埋め込まれたミリ秒の時刻 */
+  public static long timestampMillis(UUID uuid) {
+    return uuid.getMostSignificantBits() >>> 16;
+  }
+
+  static long nextState(long nowMillis) {
+    while (true) {
+      long prev = LAST.get();
+      long candidate = nowMillis << 12;
+      // 新しいミリ秒ではカウンタを 0〜2047 の乱数から始める（件数を推測されにくくし、上位半分を溢れ対策に残す）
+      long next = candidate > prev ? candidate | ThreadLocalRandom.current().nextInt(2048) : prev + 1;
+      if (LAST.compareAndSet(prev, next)) {
+        return next;
+      }
+    }
+  }
+}
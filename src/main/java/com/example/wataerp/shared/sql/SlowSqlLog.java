@@ -0,0 +1,46 @@
+package com.example.wataerp.shared.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 閾値以上かかったSQLを1行でログに出す。
+ *
+ * <p>SQLは {@link SqlText#compact} で詰めたもの（リテラルは伏せ字、バインド変数の値は出さない）。件数は {@code
+ * wataerp.sql.slow} で全件数え、ログは sampleRate の割合だけ出す。correlationId はログの MDC から付く。
+ */
+public class SlowSqlLog {
+
+  private static final Logger log = LoggerFactory.getLogger(SlowSqlLog.class);
+
+  private final long thresholdNanos;
+  private final double sampleRate;
+  private final Counter slow = Metrics.counter("wataerp.sql.slow");
+
+  public SlowSqlLog(Duration threshold, double sampleRate) {
+    this.thresholdNanos = threshold.toNanos();
+    this.sampleRate = sampleRate;
+  }
+
+  /** 閾値が 0 以下なら何もしない */
+  public boolean isEnabled() {
+    return thresholdNanos > 0;
+  }
+
+  void record(String sql, long elapsedNanos) {
+    if (elapsedNanos < thresholdNanos || !isEnabled()) {
+      return;
+    }
+    slow.increment();
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
+    log.warn(
+        "遅いSQL {}ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), SqlText.compact(sql));
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.wataerp.shared.sql;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 1リクエスト分のSQL実行の集計（文の数・行数・DB時間、SQL文ごとの実行回数）。
+ *
+ * <p>StreamingResponseBody などで別スレッドからも加算されるので、カウンタはスレッドセーフにしてある。
+ */
+public final class SqlStats {
+
+  private final LongAdder statements = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder elapsedNanos = new LongAdder();
+  // 同じSQL文（プレースホルダのまま）の実行回数。多ければ N+1 の疑い
+  private final Map<String, LongAdder> bySql = new ConcurrentHashMap<>();
+
+  void recordStatement(String sql, long nanos) {
+    statements.increment();
+    elapsedNanos.add(nanos);
+    bySql.computeIfAbsent(sql, k -> new LongAdder()).increment();
+  }
+
+  void recordRows(long count) {
+    rows.add(count);
+  }
+
+  /** 実行した文の数（JDBCバッチは1回で1文） */
+  public long getStatements() {
+    return statements.sum();
+  }
+
+  /** 読み込んだ行数と更新した行数の合計（wataerp.sql-stats.count-rows が無効なら 0） */
+  public long getRows() {
+    return rows.sum();
+  }
+
+  /** execute* の呼び出しにかかった時間の合計（結果セットの読み込み時間は含まない） */
+  public long getElapsedNanos() {
+    return elapsedNanos.sum();
+  }
+
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+  }
+
+  /** SQL文ごとの実行回数（SQL文の順） */
+  public Map<String, Long> getStatementCounts() {
+    Map<String, Long> counts = new TreeMap<>();
+    bySql.forEach((sql, count) -> counts.put(sql, count.sum()));
+    return counts;
+  }
+
+  /** threshold 回以上実行されたSQL文（N+1 の疑い） */
+  public Map<String, Long> getRepeatedStatements(int threshold) {
+    Map<String, Long> repeated = new TreeMap<>();
+    bySql.forEach(
+        (sql, count) -> {
+          long n = count.sum();
+          if (n >= threshold) {
+            repeated.put(sql, n);
+          }
+        });
+    return repeated;
+  }
+
+  @Override
+  public String toString() {
+    return "statements=" + getStatements() + " rows=" + getRows() + " dbMs=" + getElapsedMillis();
+  }
+}
@@ -0,0 +1,184 @@
+package com.example.wataerp.shared.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 実行したSQLを {@link SqlStatsRegistry} の計測中リクエストに数える DataSource。
+ *
+ * <p>JPA（Hibernate）も JdbcTemplate も同じコネクションを通るので、どちらのSQLも数えられる。COPY
+ * のように {@code unwrap} したドライバのコネクションで直接実行したものは数えない。計測中でないスレッドでは、遅いSQLのログ用に実行時間を測るほかは素通しする。
+ *
+ * <p>行数は結果セットの {@code next()} と更新件数から数える。そのため行数を数えるときは計測中の結果セットも包む（1行ごとの
+ * 呼び出しがリフレクション経由になる）ので、本番では数えない（{@code wataerp.sql-stats.count-rows}）。
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+  private static final Set<String> EXECUTE_METHODS =
+      Set.of(
+          "execute",
+          "executeQuery",
+          "executeUpdate",
+          "executeLargeUpdate",
+          "executeBatch",
+          "executeLargeBatch");
+
+  private final SqlStatsRegistry registry;
+  private final SlowSqlLog slowSqlLog;
+  private final boolean countRows;
+
+  public SqlStatsDataSource(DataSource target, SqlStatsRegistry registry) {
+    this(target, registry, null);
+  }
+
+  /** slowSqlLog を渡すと、計測中でないスレッドのSQLも実行時間だけは測って遅いものをログに出す */
+  public SqlStatsDataSource(DataSource target, SqlStatsRegistry registry, SlowSqlLog slowSqlLog) {
+    this(target, registry, slowSqlLog, true);
+  }
+
+  /** countRows=false なら文の数と時間だけを数え、結果セットは包まない */
+  public SqlStatsDataSource(
+      DataSource target, SqlStatsRegistry registry, SlowSqlLog slowSqlLog, boolean countRows) {
+    super(target);
+    this.registry = registry;
+    this.slowSqlLog = slowSqlLog != null && slowSqlLog.isEnabled() ? slowSqlLog : null;
+    this.countRows = countRows;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrapConnection(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection wrapConnection(Connection target) {
+    return proxy(
+        Connection.class,
+        (proxy, method, args) -> {
+          Object result = invoke(target, method, args);
+          if (result instanceof Statement statement) {
+            // prepareStatement / prepareCall の SQL は実行時に分からないのでここで覚えておく
+            String sql =
+                args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return wrapStatement(statement, method.getReturnType(), sql);
+          }
+          return result;
+        });
+  }
+
+  private Object wrapStatement(Statement target, Class<?> type, String preparedSql) {
+    Class<?> iface =
+        CallableStatement.class.isAssignableFrom(type)
+            ? CallableStatement.class
+            : PreparedStatement.class.isAssignableFrom(type)
+                ? PreparedStatement.class
+                : Statement.class;
+    return proxy(
+        iface,
+        (proxy, method, args) -> {
+          SqlStats stats = registry.current();
+          boolean execute = EXECUTE_METHODS.contains(method.getName());
+          if (stats == null && !(execute && slowSqlLog != null)) {
+            return invoke(target, method, args);
+          }
+          if (execute) {
+            String sql =
+                preparedSql != null
+                    ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s : "(batch)";
+            long start = System.nanoTime();
+            Object result;
+            try {
+              result = invoke(target, method, args);
+            } finally {
+              long elapsed = System.nanoTime() - start;
+              if (stats != null) {
+                stats.recordStatement(sql, elapsed);
+              }
+              if (slowSqlLog != null) {
+                slowSqlLog.record(sql, elapsed);
+              }
+            }
+            return stats != null && countRows ? countResult(stats, result) : result;
+          }
+          Object result = invoke(target, method, args);
+          // execute(String) の結果は getResultSet で取り出す
+          return countRows
+                  && "getResultSet".equals(method.getName())
+                  && result instanceof ResultSet rs
+              ? wrapResultSet(rs, stats)
+              : result;
+        });
+  }
+
+  private Object countResult(SqlStats stats, Object result) {
+    if (result instanceof ResultSet rs) {
+      return wrapResultSet(rs, stats);
+    }
+    if (result instanceof Integer count && count > 0) {
+      stats.recordRows(count);
+    } else if (result instanceof Long count && count > 0) {
+      stats.recordRows(count);
+    } else if (result instanceof int[] counts) {
+      // SUCCESS_NO_INFO(-2) などの負の値は件数に含めない
+      for (int count : counts) {
+        stats.recordRows(Math.max(count, 0));
+      }
+    } else if (result instanceof long[] counts) {
+      for (long count : counts) {
+        stats.recordRows(Math.max(count, 0));
+      }
+    }
+    return result;
+  }
+
+  private ResultSet wrapResultSet(ResultSet target, SqlStats stats) {
+    return proxy(
+        ResultSet.class,
+        (proxy, method, args) -> {
+          Object result = invoke(target, method, args);
+          if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+            stats.recordRows(1);
+          }
+          return result;
+        });
+  }
+
+  // equals / hashCode はプロキシ自身で判定する（DataSourceUtils がトランザクションのコネクションと同一か比べるため）
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> iface, InvocationHandler handler) {
+    InvocationHandler identity =
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "equals" -> args.length == 1 && proxy == args[0];
+              case "hashCode" -> System.identityHashCode(proxy);
+              default -> handler.invoke(proxy, method, args);
+            };
+    return (T)
+        Proxy.newProxyInstance(
+            SqlStatsDataSource.class.getClassLoader(), new Class<?>[] {iface}, identity);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.wataerp.shared.sql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.MDC;
+
+/**
+ * 計測中のリクエストの {@link SqlStats} を計測ID（MDC の {@value #MDC_KEY}）ごとに持つ。
+ *
+ * <p>スレッドローカルではなく MDC の計測IDで引くので、MDC を引き継いだ別スレッド（{@code @Async}・
+ * StreamingResponseBody）で実行したSQLも元のリクエストに数えられる。計測IDはサーバーがリクエストごとに採番する
+ * （クライアントが送る correlationId は重複し得るので使わない）。
+ */
+public class SqlStatsRegistry {
+
+  public static final String MDC_KEY = "sqlStatsId";
+
+  private final Map<String, SqlStats> active = new ConcurrentHashMap<>();
+
+  /** key での計測を始める。同じ key が計測中なら後から始めた方に数える */
+  public SqlStats start(String key) {
+    SqlStats stats = new SqlStats();
+    active.put(key, stats);
+    return stats;
+  }
+
+  /** 計測を終える。結果は start が返したインスタンスをそのまま使う */
+  public void finish(String key, SqlStats stats) {
+    active.remove(key, stats);
+  }
+
+  /** 現在のスレッドの計測IDで計測中なら、その集計。計測対象外なら null */
+  public SqlStats current() {
+    String key = MDC.get(MDC_KEY);
+    return key != null ? active.get(key) : null;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.wataerp.shared.sql;
+
+/**
+ * ログ用にSQL文を1行に詰める。
+ *
+ * <p>改行・連続する空白は1個の空白にし、文字列・数値のリテラルは {@code ?} に置き換える（プリペアドでない文に埋め込まれた値を出さないため）。
+ * バインド変数の値はそもそも受け取らない。
+ */
+public final class SqlText {
+
+  // ログ1行に出す最大文字数（超えた分は … で省く）
+  static final int MAX_LENGTH = 2000;
+
+  private SqlText() {}
+
+  public static String compact(String sql) {
+    StringBuilder out = new StringBuilder(Math.min(sql.length(), MAX_LENGTH + 1));
+    int n = sql.length();
+    int i = 0;
+    while (i < n && out.length() <= MAX_LENGTH) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        // 'it''s' のような引用符を重ねたエスケープも含めて1個のリテラル
+        i++;
+        while (i < n) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        out.append('?');
+        i++;
+      } else if (Character.isWhitespace(c)) {
+        while (i < n && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (!out.isEmpty() && i < n) {
+          out.append(' ');
+        }
+      } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+        // 識別子の一部（col1、$1 など）でない数字の並び
+        while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        out.append('?');
+      } else {
+        out.append(c);
+        i++;
+      }
+    }
+    if (out.length() > MAX_LENGTH) {
+      out.setLength(MAX_LENGTH);
+      out.append('…');
+    }
+    return out.toString();
+  }
+
+  private static boolean isIdentifierPart(StringBuilder out) {
+    if (out.isEmpty()) {
+      return false;
+    }
+    char prev = out.charAt(out.length() - 1);
+    return Character.isLetterOrDigit(prev) || prev == '_' || prev == '$' || prev == '"';
+  }
+}
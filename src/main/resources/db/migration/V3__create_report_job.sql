@@ -0,0 +1,16 @@
+-- 非同期レポート生成ジョブ
+CREATE TABLE report_job (
+  id uuid PRIMARY KEY,
+  report_type varchar(32) NOT NULL,
+  status varchar(16) NOT NULL,       -- QUEUED / RUNNING / SUCCEEDED / FAILED
+  correlation_id varchar(64),        -- 受付リクエストの X-Correlation-Id（ログ追跡用）
+  file_name varchar(128),
+  file_size bigint,
+  error_message varchar(512),
+  created_at timestamptz NOT NULL,
+  started_at timestamptz,
+  finished_at timestamptz,
+  expires_at timestamptz             -- 完了後、この時刻を過ぎたらファイルごと削除
+);
+
+CREATE INDEX idx_report_job_expires_at ON report_job (expires_at);
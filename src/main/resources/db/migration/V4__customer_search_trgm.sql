@@ -0,0 +1,18 @@
+-- 会社名の部分一致検索・顧客コードの前方一致検索用
+-- pg_trgm は日本語も扱えるが、DBの LC_CTYPE が C 以外（マルチバイト対応）であること
+-- 索引は CONCURRENTLY で作り、作成中も顧客マスタへの書き込みを止めない（トランザクション内では実行できないので
+-- V4__customer_search_trgm.sql.conf で executeInTransaction=false にしている）。
+-- 作成に失敗すると INVALID な索引が残り、IF NOT EXISTS で作り直されないので、DROP INDEX してから flyway repair で再実行すること
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- company_name ILIKE '%...%' の絞り込みと company_name <-> '語'（距離の近い順）の並べ替え用
+-- GIN（gin_trgm_ops）は ILIKE の絞り込みには使えるが ORDER BY には使えず、よくある語だと一致した全行を並べ替えてから
+-- LIMIT することになる。GiST（gist_trgm_ops）なら距離の近い順にインデックスから返せるので、LIMIT 件で読み終わる。
+-- なお trigram は3文字単位なので、2文字以下の '%xx%' は絞り込めない（wataerp.customer.search.min-length は3）
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_customer_company_name_trgm
+  ON customer_master USING gist (company_name gist_trgm_ops);
+
+-- code LIKE '...%' 用（ux_customer_code はロケール依存の照合順序なので前方一致に使えない場合がある）
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_customer_code_pattern
+  ON customer_master (code varchar_pattern_ops);
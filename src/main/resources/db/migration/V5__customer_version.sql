@@ -0,0 +1,31 @@
+-- 楽観ロック用の行バージョン（JPA の @Version）。単一顧客の ETag にも使う
+ALTER TABLE customer_master ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+-- 一覧の ETag 用の変更カウンタ。customer_master を変更する文ごとに1つ進める（行数に関わらず1文で1回）
+-- 1行だと顧客マスタへの書き込みが全てその行のロックでコミットまで直列になるので、64個の枠に分ける。
+-- 文ごとに他のトランザクションがロックしていない枠を1つ選んで1つ進め、カウンタの値は全枠の合計とする（合計は文ごとにちょうど1つ進む）
+CREATE TABLE customer_master_revision (
+  id smallint PRIMARY KEY CHECK (id BETWEEN 1 AND 64),
+  revision bigint NOT NULL
+);
+
+INSERT INTO customer_master_revision (id, revision)
+SELECT i, 0 FROM generate_series(1, 64) AS i;
+
+CREATE FUNCTION bump_customer_master_revision() RETURNS trigger AS $$
+DECLARE
+  slot smallint;
+BEGIN
+  SELECT id INTO slot FROM customer_master_revision ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED;
+  IF slot IS NULL THEN
+    -- 全枠が使用中なら接続ごとの枠の解放を待つ
+    slot := pg_backend_pid() % 64 + 1;
+  END IF;
+  UPDATE customer_master_revision SET revision = revision + 1 WHERE id = slot;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_customer_master_revision
+  AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON customer_master
+  FOR EACH STATEMENT EXECUTE FUNCTION bump_customer_master_revision();
@@ -0,0 +1,56 @@
+package com.example.wataerp.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+class CacheConfigTest {
+
+  @Test
+  @DisplayName("caffeine - 存在しないコード（null）は短いTTLで、見つかった顧客は通常のTTLで消える")
+  void caffeine_negativeEntriesExpireSooner() {
+    CustomerProperties properties = new CustomerProperties();
+    properties.getCache().setTtl(Duration.ofMinutes(10));
+    properties.getCache().setNegativeTtl(Duration.ofSeconds(30));
+    AtomicLong now = new AtomicLong();
+    Cache<Object, Object> cache =
+        new CacheConfig()
+            .caffeine(properties)
+            .ticker(now::get)
+            .executor(Runnable::run)
+            .build();
+
+    cache.put("C001", "Acme");
+    cache.put("C999", NullValue.INSTANCE);
+
+    now.addAndGet(Duration.ofSeconds(31).toNanos());
+    assertThat(cache.getIfPresent("C999")).isNull();
+    assertThat(cache.getIfPresent("C001")).isEqualTo("Acme");
+
+    now.addAndGet(Duration.ofMinutes(10).toNanos());
+    assertThat(cache.getIfPresent("C001")).isNull();
+  }
+
+  @Test
+  @DisplayName("caffeine - 存在しないと記録したコードを登録で上書きすると通常のTTLになる")
+  void caffeine_overwrittenNegativeEntry_usesNormalTtl() {
+    AtomicLong now = new AtomicLong();
+    Cache<Object, Object> cache =
+        new CacheConfig()
+            .caffeine(new CustomerProperties())
+            .ticker(now::get)
+            .executor(Runnable::run)
+            .build();
+
+    cache.put("C001", NullValue.INSTANCE);
+    cache.put("C001", "Acme");
+
+    now.addAndGet(Duration.ofMinutes(1).toNanos());
+    assertThat(cache.getIfPresent("C001")).isEqualTo("Acme");
+  }
+}
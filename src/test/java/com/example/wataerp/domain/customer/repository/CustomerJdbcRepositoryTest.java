@@ -0,0 +1,185 @@
+package com.example.wataerp.domain.customer.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * PostgreSQL 固有のSQL（配列のバインド・unnest WITH ORDINALITY・pg_trgm など）を実DBで確認する。
+ *
+ * <p>H2 では動かないため Testcontainers の PostgreSQL を使い、スキーマは Flyway のマイグレーションで作る。Docker が無い環境ではスキップする。
+ */
+@JdbcTest(properties = "spring.flyway.enabled=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CustomerJdbcRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class CustomerJdbcRepositoryTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Autowired private CustomerJdbcRepository repo;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private DataSource dataSource;
+
+  @BeforeEach
+  void setup() {
+    insert("C001", "Acme");
+    insert("C002", "Globex");
+    insert("C003", "Initech");
+  }
+
+  @Test
+  @DisplayName("findByCodes - 入力の順序で返し、見つからなかったコードも入力順で返す")
+  void findByCodes_keepsInputOrder_reportsMissing() {
+    CustomerJdbcRepository.CodeLookup result =
+        repo.findByCodes(List.of("C003", "X001", "C001", "C003", "X002", "C002"));
+
+    assertThat(result.found())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C003", "C001", "C002");
+    assertThat(result.found().get(0).getCompanyName()).isEqualTo("Initech");
+    assertThat(result.missing()).containsExactly("X001", "X002");
+
+    CustomerJdbcRepository.CodeLookup unlimited =
+        repo.findByCodesUnlimited(List.of("C003", "X001", "C001", "C003", "X002", "C002"));
+    assertThat(unlimited.found())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C003", "C001", "C002");
+    assertThat(unlimited.missing()).containsExactly("X001", "X002");
+  }
+
+  @Test
+  @DisplayName("findByCodes - 空の一覧は何も返さない")
+  void findByCodes_empty() {
+    CustomerJdbcRepository.CodeLookup result = repo.findByCodes(List.of());
+
+    assertThat(result.found()).isEmpty();
+    assertThat(result.missing()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("search - コードの前方一致を先頭に、会社名の部分一致を類似度順に続け、両方に一致した顧客は1回だけ返す")
+  void search_codePrefixFirst_thenNameBySimilarity() {
+    insert("ACME1", "Other Trading");
+    insert("ACME2", "ACME");
+    insert("C011", "Acme Holdings International");
+
+    // C001（Acme）は完全一致なので、長い社名の C011 より前
+    assertThat(repo.search("ACME", true, 10, Duration.ofMillis(500)))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("ACME1", "ACME2", "C001", "C011");
+    assertThat(repo.search("ACME", true, 2, Duration.ofMillis(500)))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("ACME1", "ACME2");
+    assertThat(repo.search("ACME", false, 10, Duration.ofMillis(500)))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("ACME1", "ACME2");
+  }
+
+  @Test
+  @DisplayName("search - LIKE のワイルドカードは文字として扱う")
+  void search_escapesWildcards() {
+    insert("C010", "100% Pure");
+    insert("C011", "1000 Pure");
+
+    assertThat(repo.search("0% P", true, 10, Duration.ofMillis(500)))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C010");
+  }
+
+  @Test
+  @DisplayName("search - 多くの行に一致する語でも全件を並べ替えず、時間内に上限件数を返す")
+  void search_commonSubstring_withinTimeout() {
+    jdbcTemplate.update(
+        "INSERT INTO customer_master (id, code, company_name)"
+            + " SELECT gen_random_uuid(), 'S' || lpad(i::text, 6, '0'), 'Sample Trading ' || i"
+            + " FROM generate_series(1, 50000) AS i");
+    jdbcTemplate.execute("ANALYZE customer_master");
+
+    assertThat(repo.search("Trading", true, 10, Duration.ofMillis(500))).hasSize(10);
+  }
+
+  @Test
+  @DisplayName("search - statement_timeout はトランザクション内に設定され、超過すると QueryTimeoutException")
+  void search_setsStatementTimeout() {
+    repo.search("ACME", true, 10, Duration.ofMillis(100));
+
+    assertThat(jdbcTemplate.queryForObject("SHOW statement_timeout", String.class))
+        .isEqualTo("100ms");
+    assertThatThrownBy(() -> jdbcTemplate.execute("SELECT pg_sleep(1)"))
+        .isInstanceOf(QueryTimeoutException.class);
+  }
+
+  @Test
+  @DisplayName("findRevision - 変更する文ごとに1つ進む（行数に関わらない）")
+  void findRevision_onePerStatement() {
+    long before = repo.findRevision();
+
+    jdbcTemplate.update("UPDATE customer_master SET company_name = company_name || '!'");
+    insert("C004", "Umbrella");
+
+    assertThat(repo.findRevision()).isEqualTo(before + 2);
+  }
+
+  @Test
+  @DisplayName("findRevision - 書き込み中のトランザクションがあっても、別の接続の書き込みは待たされない")
+  void findRevision_concurrentWritersDoNotBlock() throws Exception {
+    long before = repo.findRevision();
+
+    // このテストのトランザクションは setup の INSERT で枠を1つロックしたまま
+    try (Connection con = dataSource.getConnection();
+        Statement st = con.createStatement()) {
+      con.setAutoCommit(true);
+      st.execute("SET lock_timeout = '1s'");
+      st.executeUpdate(
+          "INSERT INTO customer_master (id, code, company_name)"
+              + " VALUES (gen_random_uuid(), 'C900', 'Other')");
+    }
+
+    // 別の接続の確定済みの1文だけ進んで見える
+    assertThat(repo.findRevision()).isEqualTo(before + 1);
+
+    // 別の接続の行はロールバックされないので消しておく
+    try (Connection con = dataSource.getConnection();
+        Statement st = con.createStatement()) {
+      con.setAutoCommit(true);
+      st.executeUpdate("DELETE FROM customer_master WHERE code = 'C900'");
+    }
+  }
+
+  private void insert(String code, String companyName) {
+    jdbcTemplate.update(
+        "INSERT INTO customer_master (id, code, company_name) VALUES (?, ?, ?)",
+        UUID.randomUUID(),
+        code,
+        companyName);
+  }
+}
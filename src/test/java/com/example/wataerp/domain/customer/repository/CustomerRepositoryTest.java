@@ -0,0 +1,103 @@
+package com.example.wataerp.domain.customer.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.entity.Customer;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+/** レスポンスへ直接射影するクエリがエンティティを生成しないことを実DB（H2）で確認する */
+@DataJpaTest(
+    properties = {
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@ActiveProfiles("test")
+class CustomerRepositoryTest {
+
+  @Autowired private CustomerRepository repo;
+  @Autowired private EntityManagerFactory emf;
+  @Autowired private TestEntityManager em;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setup() {
+    repo.saveAllAndFlush(List.of(customer("C001"), customer("C002"), customer("C003")));
+    statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  @DisplayName("findAllResponses - エンティティをロードせずにレスポンスを返す")
+  void findAllResponses_doesNotLoadEntities() {
+    List<CustomerResponse> res = repo.findAllResponses();
+
+    assertThat(res)
+        .extracting(CustomerResponse::getCode)
+        .containsExactlyInAnyOrder("C001", "C002", "C003");
+    assertThat(res.get(0).getCompanyName()).isEqualTo("Acme");
+    assertThat(res.get(0).getCreditLimit()).isEqualByComparingTo("100.00");
+    assertThat(res.get(0).getActive()).isTrue();
+    assertThat(res.get(0).getVersion()).isZero();
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("findResponseByCode - 存在しないコードは空を返す")
+  void findResponseByCode_unknown_empty() {
+    assertThat(repo.findResponseByCode("C002")).map(CustomerResponse::getCode).hasValue("C002");
+    assertThat(repo.findResponseByCode("C999")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("findResponsePage / findResponsePageAfter - code昇順で件数分だけ返す")
+  void findResponsePage_keyset() {
+    assertThat(repo.findResponsePage(Limit.of(2)))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C001", "C002");
+    assertThat(repo.findResponsePageAfter("C002", Limit.of(2)))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C003");
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("更新 - 読み込み後に他で更新された顧客を保存すると楽観ロック例外")
+  void update_staleVersion_throwsOptimisticLockingFailure() {
+    Customer stale = repo.findByCodeIn(List.of("C001")).get(0);
+    em.detach(stale);
+
+    Customer current = repo.findByCodeIn(List.of("C001")).get(0);
+    current.setCompanyName("Acme Japan");
+    repo.saveAndFlush(current);
+    assertThat(current.getVersion()).isEqualTo(1L);
+
+    stale.setCompanyName("Acme Europe");
+    assertThatThrownBy(() -> repo.saveAndFlush(stale))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+  }
+
+  private static Customer customer(String code) {
+    Customer customer = new Customer();
+    customer.setId(UUID.randomUUID());
+    customer.setCode(code);
+    customer.setCompanyName("Acme");
+    customer.setCreditLimit(new BigDecimal("100.00"));
+    return customer;
+  }
+}
@@ -0,0 +1,144 @@
+package com.example.wataerp.domain.customer.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.repository.CustomerCopyRepository;
+import com.example.wataerp.domain.customer.repository.CustomerJdbcRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+class CustomerExportServiceTest {
+
+  private CustomerJdbcRepository jdbcRepo;
+  private CustomerCopyRepository copyRepo;
+  private PlatformTransactionManager transactionManager;
+  private CustomerExportService service;
+
+  @BeforeEach
+  void setup() {
+    jdbcRepo = mock(CustomerJdbcRepository.class);
+    copyRepo = mock(CustomerCopyRepository.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    CustomerProperties properties = new CustomerProperties();
+    properties.getExport().setFetchSize(10);
+    properties.getExport().setExcelRowWindow(2);
+    service = new CustomerExportService(jdbcRepo, copyRepo, properties, transactionManager);
+  }
+
+  @Test
+  @DisplayName("exportXlsx - 行ウィンドウを超える件数でも全行を数値書式付きで出力する")
+  void exportXlsx_writesAllRows() throws Exception {
+    doAnswer(
+            inv -> {
+              Consumer<CustomerResponse> consumer = inv.getArgument(1);
+              for (int i = 1; i <= 5; i++) {
+                consumer.accept(customer("C00" + i, new BigDecimal("1234.50")));
+              }
+              return null;
+            })
+        .when(jdbcRepo)
+        .streamAll(eq(10), any());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.exportXlsx(out);
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = workbook.getSheet("customers");
+      assertThat(sheet.getLastRowNum()).isEqualTo(5);
+      assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("顧客コード");
+
+      Row last = sheet.getRow(5);
+      assertThat(last.getCell(0).getStringCellValue()).isEqualTo("C005");
+      assertThat(last.getCell(4).getCellType()).isEqualTo(CellType.NUMERIC);
+      assertThat(last.getCell(4).getNumericCellValue()).isEqualTo(1234.5);
+      assertThat(last.getCell(4).getCellStyle().getDataFormatString()).isEqualTo("#,##0.00");
+      assertThat(last.getCell(5).getBooleanCellValue()).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("exportXlsx - 読み込みのトランザクションを終えてから書き出す（送出中はコネクションを持たない）")
+  void exportXlsx_writesAfterTransactionEnds() throws Exception {
+    AtomicBoolean committed = new AtomicBoolean();
+    doAnswer(
+            inv -> {
+              committed.set(true);
+              return null;
+            })
+        .when(transactionManager)
+        .commit(any());
+    doAnswer(
+            inv -> {
+              Consumer<CustomerResponse> consumer = inv.getArgument(1);
+              consumer.accept(customer("C001", new BigDecimal("1.00")));
+              return null;
+            })
+        .when(jdbcRepo)
+        .streamAll(eq(10), any());
+    AtomicBoolean committedBeforeWrite = new AtomicBoolean(true);
+    OutputStream out =
+        new OutputStream() {
+          @Override
+          public void write(int b) {
+            committedBeforeWrite.compareAndSet(true, committed.get());
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) {
+            committedBeforeWrite.compareAndSet(true, committed.get());
+          }
+        };
+
+    service.exportXlsx(out);
+
+    verify(transactionManager).getTransaction(argThat(def -> def.isReadOnly()));
+    verify(transactionManager).commit(any());
+    assertThat(committedBeforeWrite).isTrue();
+  }
+
+  @Test
+  @DisplayName("exportCsv - コード範囲の書式不正はCOPYを発行せずBAD_REQUEST")
+  void exportCsv_invalidCode_throwsException() {
+    assertThatThrownBy(
+            () -> service.exportCsv(false, "C001'; DROP TABLE x; --", null, new ByteArrayOutputStream()))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("codeFrom");
+    verifyNoInteractions(copyRepo);
+  }
+
+  @Test
+  @DisplayName("exportCsv - 空のコード範囲は未指定として扱う")
+  void exportCsv_emptyRange_treatedAsUnbounded() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    service.exportCsv(true, "", "C999", out);
+
+    verify(copyRepo).copyOutCsv(true, null, "C999", out);
+  }
+
+  private static CustomerResponse customer(String code, BigDecimal creditLimit) {
+    CustomerResponse res = new CustomerResponse();
+    res.setCode(code);
+    res.setCompanyName("Acme");
+    res.setCreditLimit(creditLimit);
+    res.setActive(true);
+    return res;
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.wataerp.domain.customer.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.wataerp.config.CacheConfig;
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.domain.customer.dto.CustomerImportResponse;
+import com.example.wataerp.domain.customer.repository.CustomerCopyRepository;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshotHolder;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.server.ResponseStatusException;
+
+class CustomerImportServiceTest {
+
+  private CustomerCopyRepository copyRepo;
+  private CustomerImportService service;
+  private StringWriter copied;
+
+  @BeforeEach
+  void setup() {
+    copyRepo = mock(CustomerCopyRepository.class);
+    CustomerProperties properties = new CustomerProperties();
+    properties.getImport().setMaxRejectedRows(1);
+    service =
+        new CustomerImportService(
+            copyRepo,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            properties,
+            mock(CustomerSnapshotHolder.class),
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
+
+    // COPY に流れたCSVを文字列として受け取る
+    copied = new StringWriter();
+    doAnswer(
+            inv -> {
+              CustomerCopyRepository.CsvWriter writer = inv.getArgument(0);
+              writer.writeTo(copied);
+              return null;
+            })
+        .when(copyRepo)
+        .copyIntoImportStage(any());
+  }
+
+  @Test
+  @DisplayName("importCsv - 登録APIと同じ正規化をかけてCOPYに流し、結果件数を返す")
+  void importCsv_normalizesAndCopies() {
+    when(copyRepo.mergeImportStage(false)).thenReturn(1);
+
+    CustomerImportResponse res =
+        service.importCsv(
+            csv(
+                """
+                code,companyName,billingAddress,taxCode,creditLimit
+                " C001 ", Acme ,  ,T1,1.005
+                C002,Beta,Osaka,,
+                """),
+            CustomerImportService.OnConflict.SKIP);
+
+    String[] lines = copied.toString().split("\\n");
+    assertThat(lines).hasSize(2);
+    // id, code, companyName, billingAddress(空→NULL), taxCode, creditLimit(scale 2), active, 行番号
+    assertThat(lines[0]).matches("\"[0-9a-f-]{36}\",\"C001\",\"Acme\",,\"T1\",\"1.01\",\"true\",\"2\"");
+    assertThat(lines[1]).endsWith(",\"C002\",\"Beta\",\"Osaka\",,\"0.00\",\"true\",\"3\"");
+
+    assertThat(res.getReceived()).isEqualTo(2);
+    assertThat(res.getApplied()).isEqualTo(1);
+    assertThat(res.getSkipped()).isEqualTo(1);
+    assertThat(res.getRejected()).isZero();
+    verify(copyRepo).createImportStage();
+  }
+
+  @Test
+  @DisplayName("importCsv - 検証エラー行はCOPYせず、明細は上限件数までに抑える")
+  void importCsv_rejectsInvalidRows() {
+    when(copyRepo.mergeImportStage(true)).thenReturn(1);
+
+    CustomerImportResponse res =
+        service.importCsv(
+            csv(
+                """
+                code,companyName,creditLimit
+                C001,Acme,abc
+                C 002,Beta,1
+                C003,Gamma,1
+                """),
+            CustomerImportService.OnConflict.UPDATE);
+
+    assertThat(copied.toString()).contains("\"C003\"").doesNotContain("C001", "C 002");
+    assertThat(res.getReceived()).isEqualTo(3);
+    assertThat(res.getRejected()).isEqualTo(2);
+    assertThat(res.getRejectedRows()).hasSize(1);
+    assertThat(res.getRejectedRows().get(0).getLine()).isEqualTo(2);
+    assertThat(res.getRejectedRows().get(0).getReason()).contains("creditLimit");
+  }
+
+  @Test
+  @DisplayName("importCsv - 必須列が無いCSVはBAD_REQUESTをスロー")
+  void importCsv_missingColumn_throwsException() {
+    assertThatThrownBy(
+            () ->
+                service.importCsv(
+                    csv("companyName\nAcme\n"), CustomerImportService.OnConflict.SKIP))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("code");
+    verify(copyRepo, never()).mergeImportStage(anyBoolean());
+  }
+
+  private static InputStream csv(String s) {
+    return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.wataerp.domain.customer.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.example.wataerp.config.CacheConfig;
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.domain.customer.dto.CustomerRequest;
+import com.example.wataerp.domain.customer.repository.CustomerJdbcRepository;
+import com.example.wataerp.domain.customer.repository.CustomerRepository;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshotHolder;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+/** create() が発行するSQL本数を実DB（H2）で確認する */
+@DataJpaTest(
+    properties = {
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@ActiveProfiles("test")
+class CustomerServiceCreateStatementTest {
+
+  @Autowired private CustomerRepository repo;
+  @Autowired private EntityManagerFactory emf;
+
+  private CustomerService service;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setup() {
+    service =
+        new CustomerService(
+            repo,
+            mock(CustomerJdbcRepository.class),
+            new CustomerProperties(),
+            mock(CustomerSnapshotHolder.class),
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
+    statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  @DisplayName("create - SELECTを伴わず INSERT 1本で登録される")
+  void create_issuesSingleInsert() {
+    service.create(request("C001"));
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("create - 重複コードは一意制約で検出してCONFLICTをスロー")
+  void create_duplicateCode_conflict() {
+    service.create(request("C001"));
+
+    assertThatThrownBy(() -> service.create(request("C001")))
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT))
+        .hasMessageContaining("顧客コードが重複しています");
+  }
+
+  private static CustomerRequest request(String code) {
+    CustomerRequest req = new CustomerRequest();
+    req.setCode(code);
+    req.setCompanyName("Acme");
+    req.setCreditLimit(new BigDecimal("100.00"));
+    return req;
+  }
+}
@@ -3,28 +3,65 @@ package com.example.wataerp.domain.customer.service;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.example.wataerp.config.CacheConfig;
+import com.example.wataerp.config.CustomerProperties;
+import com.example.wataerp.domain.customer.dto.CustomerBatchResponse;
+import com.example.wataerp.domain.customer.dto.CustomerPageResponse;
 import com.example.wataerp.domain.customer.dto.CustomerRequest;
 import com.example.wataerp.domain.customer.dto.CustomerResponse;
 import com.example.wataerp.domain.customer.entity.Customer;
+import com.example.wataerp.domain.customer.repository.CustomerJdbcRepository;
 import com.example.wataerp.domain.customer.repository.CustomerRepository;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshot;
+import com.example.wataerp.domain.customer.snapshot.CustomerSnapshotHolder;
+import com.example.wataerp.shared.concurrent.SingleFlightTimeoutException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 class CustomerServiceTest {
 
   private CustomerRepository repo;
+  private CustomerJdbcRepository jdbcRepo;
+  private CustomerSnapshotHolder snapshots;
   private CustomerService service;
 
   @BeforeEach
   void setup() {
     repo = mock(CustomerRepository.class);
-    service = new CustomerService(repo);
+    jdbcRepo = mock(CustomerJdbcRepository.class);
+    snapshots = mock(CustomerSnapshotHolder.class);
+    CustomerProperties properties = new CustomerProperties();
+    properties.getPage().setDefaultSize(2);
+    properties.getPage().setMaxSize(3);
+    service =
+        new CustomerService(
+            repo,
+            jdbcRepo,
+            properties,
+            snapshots,
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
   }
 
   // ======================================================
@@ -42,65 +79,392 @@ class CustomerServiceTest {
     req.setTaxCode("T123");
     req.setCreditLimit(new BigDecimal("100.00"));
 
-    when(repo.existsByCode("C001")).thenReturn(false);
-    when(repo.save(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(repo.saveAndFlush(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
 
     // when
     CustomerResponse res = service.create(req);
 
     // then
     ArgumentCaptor<Customer> captor = ArgumentCaptor.forClass(Customer.class);
-    verify(repo).save(captor.capture());
+    verify(repo).saveAndFlush(captor.capture());
     Customer saved = captor.getValue();
 
     assertThat(saved.getCode()).isEqualTo("C001");
     assertThat(saved.getId()).isNotNull();
+    assertThat(saved.isNew()).isTrue();
+    verify(repo, never()).existsByCode(any());
     assertThat(res.getCompanyName()).isEqualTo("Acme");
   }
 
   @Test
   @DisplayName("getCustomers - 引数nullなら全件取得が呼ばれる")
   void getCustomers_all_success() {
-    Customer customer = new Customer();
-    customer.setId(UUID.randomUUID());
-    customer.setCode("C001");
-    customer.setCompanyName("Acme");
-    customer.setBillingAddress("Tokyo");
-    customer.setTaxCode("T123");
-    customer.setCreditLimit(new BigDecimal("100"));
-    when(repo.findAll()).thenReturn(List.of(customer));
+    when(repo.findAllResponses()).thenReturn(List.of(response("C001")));
 
     List<CustomerResponse> result = service.getCustomers(null);
 
     assertThat(result).hasSize(1);
-    verify(repo, times(1)).findAll();
+    verify(repo, times(1)).findAllResponses();
   }
 
   @Test
   @DisplayName("getCustomers - コード指定で正常に取得")
   void getCustomers_byCodes_success() {
-    Customer customer1 = new Customer();
-    customer1.setId(UUID.randomUUID());
-    customer1.setCode("C001");
-    customer1.setCompanyName("Acme");
-    customer1.setBillingAddress("Tokyo");
-    customer1.setTaxCode("T123");
-    customer1.setCreditLimit(new BigDecimal("100"));
-
-    Customer customer2 = new Customer();
-    customer2.setId(UUID.randomUUID());
-    customer2.setCode("C001");
-    customer2.setCompanyName("Acme");
-    customer2.setBillingAddress("Tokyo");
-    customer2.setTaxCode("T123");
-    customer2.setCreditLimit(new BigDecimal("100"));
-    List<Customer> list = List.of(customer1, customer2);
-    when(repo.findByCodeIn(List.of("C001", "C002"))).thenReturn(list);
+    when(jdbcRepo.findByCodes(List.of("C001", "C002")))
+        .thenReturn(
+            new CustomerJdbcRepository.CodeLookup(
+                List.of(response("C001"), response("C002")), List.of()));
 
     List<CustomerResponse> res = service.getCustomers(List.of("C001", "C002"));
 
-    assertThat(res).hasSize(2);
-    verify(repo).findByCodeIn(List.of("C001", "C002"));
+    assertThat(res).extracting(CustomerResponse::getCode).containsExactly("C001", "C002");
+    verify(jdbcRepo).findByCodes(List.of("C001", "C002"));
+    verifyNoInteractions(repo);
+  }
+
+  @Test
+  @DisplayName("getCustomers - 同じコード一覧の同時の参照は、DBへの問い合わせ1回にまとめる")
+  void getCustomers_concurrentSameCodes_coalesced() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    Metrics.addRegistry(meters);
+    CountDownLatch release = new CountDownLatch(1);
+    when(jdbcRepo.findByCodes(List.of("C001", "C002")))
+        .thenAnswer(
+            inv -> {
+              release.await(5, TimeUnit.SECONDS);
+              return new CustomerJdbcRepository.CodeLookup(
+                  List.of(response("C001"), response("C002")), List.of());
+            });
+
+    List<Future<List<CustomerResponse>>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 10; i++) {
+        results.add(executor.submit(() -> service.getCustomers(List.of("C001", "C002"))));
+      }
+      // 残り9件が実行中の1回に合流するまで待つ（合流しなければ5秒で失敗させる）
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (meters
+              .get("wataerp.singleflight.calls")
+              .tags("name", "customer-codes", "result", "coalesced")
+              .counter()
+              .count()
+          < 9) {
+        if (System.nanoTime() - deadline > 0) {
+          fail("5秒待っても9件が合流しなかった");
+        }
+        Thread.sleep(1);
+      }
+      release.countDown();
+      for (Future<List<CustomerResponse>> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(2);
+      }
+    } finally {
+      release.countDown();
+      Metrics.removeRegistry(meters);
+    }
+
+    verify(jdbcRepo, times(1)).findByCodes(List.of("C001", "C002"));
+  }
+
+  @Test
+  @DisplayName("getCustomer - キャッシュに無い同じコードの同時の参照は、DBへの問い合わせ1回にまとめる")
+  void getCustomer_concurrentSameCode_coalesced() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    Metrics.addRegistry(meters);
+    CountDownLatch release = new CountDownLatch(1);
+    when(repo.findResponseByCode("C001"))
+        .thenAnswer(
+            inv -> {
+              release.await(5, TimeUnit.SECONDS);
+              return Optional.of(response("C001"));
+            });
+
+    List<Future<CustomerResponse>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 10; i++) {
+        results.add(executor.submit(() -> service.getCustomer("C001")));
+      }
+      // 残り9件がキャッシュのロードの手前で、実行中の1回に合流するまで待つ（合流しなければ5秒で失敗させる）
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (meters
+              .get("wataerp.singleflight.calls")
+              .tags("name", "customer", "result", "coalesced")
+              .counter()
+              .count()
+          < 9) {
+        if (System.nanoTime() - deadline > 0) {
+          fail("5秒待っても9件が合流しなかった");
+        }
+        Thread.sleep(1);
+      }
+      release.countDown();
+      for (Future<CustomerResponse> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).getCode()).isEqualTo("C001");
+      }
+    } finally {
+      release.countDown();
+      Metrics.removeRegistry(meters);
+    }
+
+    verify(repo, times(1)).findResponseByCode("C001");
+  }
+
+  @Test
+  @DisplayName("getCustomer - 合流した側は待ち時間の上限で諦め、実行中の読み込みは続ける")
+  void getCustomer_slowLoad_followerTimesOut() throws Exception {
+    CustomerProperties properties = new CustomerProperties();
+    properties.getCoalesce().setWaitTimeout(Duration.ofMillis(50));
+    CustomerService shortWait =
+        new CustomerService(
+            repo,
+            jdbcRepo,
+            properties,
+            snapshots,
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(repo.findResponseByCode("C001"))
+        .thenAnswer(
+            inv -> {
+              loading.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return Optional.of(response("C001"));
+            });
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<CustomerResponse> leader = executor.submit(() -> shortWait.getCustomer("C001"));
+      assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThatThrownBy(() -> shortWait.getCustomer("C001"))
+          .isInstanceOf(SingleFlightTimeoutException.class);
+
+      release.countDown();
+      assertThat(leader.get(5, TimeUnit.SECONDS).getCode()).isEqualTo("C001");
+    } finally {
+      release.countDown();
+    }
+
+    // 読み込んだ結果はキャッシュに載り、次の参照はDBを読まない
+    assertThat(shortWait.getCustomer("C001").getCode()).isEqualTo("C001");
+    verify(repo, times(1)).findResponseByCode("C001");
+  }
+
+  @Test
+  @DisplayName("getCustomer - 2回目以降はキャッシュから返しDBを読まない")
+  void getCustomer_secondCall_servedFromCache() {
+    when(repo.findResponseByCode("C001")).thenReturn(Optional.of(response("C001")));
+
+    CustomerResponse first = service.getCustomer("C001");
+    CustomerResponse second = service.getCustomer("C001");
+
+    assertThat(first.getCode()).isEqualTo("C001");
+    assertThat(second).isSameAs(first);
+    verify(repo, times(1)).findResponseByCode("C001");
+  }
+
+  @Test
+  @DisplayName("create - 登録した顧客はキャッシュに載り、直後の取得でDBを読まない")
+  void create_putsCreatedCustomerIntoCache() {
+    CustomerRequest req = new CustomerRequest();
+    req.setCode("C001");
+    req.setCompanyName("Acme");
+    when(repo.saveAndFlush(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    service.create(req);
+    CustomerResponse res = service.getCustomer("C001");
+
+    assertThat(res.getCompanyName()).isEqualTo("Acme");
+    verify(repo, never()).findResponseByCode(any());
+  }
+
+  @Test
+  @DisplayName("createBatch - 既存・バッチ内重複はスキップし、残りを一括INSERTする")
+  void createBatch_skipsDuplicates() {
+    when(repo.findExistingCodes(List.of("C001", "C002", "C001", "C003")))
+        .thenReturn(List.of("C002"));
+
+    CustomerBatchResponse res =
+        service.createBatch(
+            List.of(request("C001"), request("C002"), request(" C001 "), request("C003")));
+
+    assertThat(res.getCreated()).isEqualTo(2);
+    assertThat(res.getFailed()).isEqualTo(2);
+    assertThat(res.getResults())
+        .extracting(CustomerBatchResponse.Result::getStatus)
+        .containsExactly(
+            CustomerBatchResponse.Status.CREATED,
+            CustomerBatchResponse.Status.DUPLICATE,
+            CustomerBatchResponse.Status.DUPLICATE,
+            CustomerBatchResponse.Status.CREATED);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Customer>> captor = ArgumentCaptor.forClass(List.class);
+    verify(repo).saveAllAndFlush(captor.capture());
+    assertThat(captor.getValue()).extracting(Customer::getCode).containsExactly("C001", "C003");
+    assertThat(captor.getValue()).allSatisfy(c -> assertThat(c.getId()).isNotNull());
+  }
+
+  @Test
+  @DisplayName("getCustomerPage - 件数+1件取得できたら次ページのカーソルを返す")
+  void getCustomerPage_hasNext_returnsCursor() {
+    when(repo.findResponsePage(Limit.of(3)))
+        .thenReturn(List.of(response("C001"), response("C002"), response("C003")));
+
+    CustomerPageResponse page = service.getCustomerPage(null, null, 0L);
+
+    assertThat(page.getItems()).extracting(CustomerResponse::getCode).containsExactly("C001", "C002");
+    assertThat(page.getNext()).isNotNull();
+
+    // 返されたカーソルで次ページを取ると、最終行のcodeより後ろから検索される
+    when(repo.findResponsePageAfter("C002", Limit.of(3))).thenReturn(List.of(response("C003")));
+
+    CustomerPageResponse nextPage = service.getCustomerPage(page.getNext(), null, 0L);
+
+    assertThat(nextPage.getItems()).extracting(CustomerResponse::getCode).containsExactly("C003");
+    assertThat(nextPage.getNext()).isNull();
+  }
+
+  @Test
+  @DisplayName("getCustomerPage - 上限を超えるsizeは上限に丸められる")
+  void getCustomerPage_sizeOverMax_isCapped() {
+    when(repo.findResponsePage(Limit.of(4))).thenReturn(List.of(response("C001")));
+
+    service.getCustomerPage(null, 1000, 0L);
+
+    verify(repo).findResponsePage(Limit.of(4));
+  }
+
+  @Test
+  @DisplayName("normalizeLookupCodes - trimして重複を除き、最初の出現順に並べる")
+  void normalizeLookupCodes_dedupes() {
+    assertThat(service.normalizeLookupCodes(List.of("C002", " C001", "C002", "C001 ")))
+        .containsExactly("C002", "C001");
+  }
+
+  @Test
+  @DisplayName("lookup - チャンクごとに照会し（同時実行数の上限は通さない）、未登録コードは例外にせず返す")
+  void lookup_chunked_returnsMissing() {
+    CustomerProperties properties = new CustomerProperties();
+    properties.getLookup().setChunkSize(2);
+    CustomerService chunked =
+        new CustomerService(
+            repo,
+            jdbcRepo,
+            properties,
+            snapshots,
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
+    when(jdbcRepo.findByCodesUnlimited(List.of("C001", "C002")))
+        .thenReturn(
+            new CustomerJdbcRepository.CodeLookup(List.of(response("C001")), List.of("C002")));
+    when(jdbcRepo.findByCodesUnlimited(List.of("C003")))
+        .thenReturn(new CustomerJdbcRepository.CodeLookup(List.of(response("C003")), List.of()));
+
+    List<CustomerResponse> found = new ArrayList<>();
+    List<String> missing = chunked.lookup(List.of("C001", "C002", "C003"), found::add);
+
+    assertThat(found).extracting(CustomerResponse::getCode).containsExactly("C001", "C003");
+    assertThat(missing).containsExactly("C002");
+    verify(jdbcRepo, times(2)).findByCodesUnlimited(any());
+    verify(jdbcRepo, never()).findByCodes(any());
+  }
+
+  @Test
+  @DisplayName("search - 最小文字数以上なら会社名も検索し、limitは上限に丸める")
+  void search_name_limitCapped() {
+    when(jdbcRepo.search(eq("アクメ"), eq(true), eq(50), any(Duration.class)))
+        .thenReturn(List.of(response("C001")));
+
+    List<CustomerResponse> res = service.search(" アクメ ", 1000);
+
+    assertThat(res).extracting(CustomerResponse::getCode).containsExactly("C001");
+  }
+
+  @Test
+  @DisplayName("search - 最小文字数未満の検索語はコードの前方一致だけで探す")
+  void search_shortKeyword_codePrefixOnly() {
+    service.search("C", null);
+
+    verify(jdbcRepo).search(eq("C"), eq(false), eq(10), any(Duration.class));
+  }
+
+  @Test
+  @DisplayName("スナップショット有効時 - 参照系はDBを読まずにスナップショットから返す")
+  void snapshot_servesReads() {
+    CustomerSnapshot snapshot =
+        CustomerSnapshot.builder(1L)
+            .add(response("C001"))
+            .add(response("C002"))
+            .add(response("C003"))
+            .build();
+    when(snapshots.current()).thenReturn(Optional.of(snapshot));
+
+    assertThat(service.getCustomer("C002").getCompanyName()).isEqualTo("Acme");
+    assertThat(service.getCustomers(List.of("C003", "C001")))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C003", "C001");
+    CustomerPageResponse page = service.getCustomerPage(null, null, 0L);
+    assertThat(page.getItems()).extracting(CustomerResponse::getCode).containsExactly("C001", "C002");
+    assertThat(service.getCustomerPage(page.getNext(), null, 0L).getItems())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C003");
+    assertThat(service.search("C00", null))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C001", "C002");
+    verifyNoInteractions(repo, jdbcRepo);
+  }
+
+  @Test
+  @DisplayName("スナップショット有効時 - 会社名の検索・スナップショットに無いカーソルはDBで読む")
+  void snapshot_nameSearchAndUnknownCursor_readDatabase() {
+    CustomerSnapshot snapshot = CustomerSnapshot.builder(1L).add(response("C001")).build();
+    when(snapshots.current()).thenReturn(Optional.of(snapshot));
+    when(jdbcRepo.search(eq("Acme"), eq(true), eq(10), any(Duration.class)))
+        .thenReturn(List.of(response("C001")));
+    when(repo.findResponsePageAfter(eq("C005"), any(Limit.class)))
+        .thenReturn(List.of(response("C009")));
+
+    assertThat(service.search("Acme", null)).hasSize(1);
+    assertThat(service.getCustomerPage("C005", null, 0L).getItems())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C009");
+  }
+
+  @Test
+  @DisplayName("スナップショット有効時 - 載っていないコードは作成後の登録とみなしDBで確認する")
+  void snapshot_miss_fallsBackToDatabase() {
+    CustomerSnapshot snapshot = CustomerSnapshot.builder(1L).add(response("C001")).build();
+    when(snapshots.current()).thenReturn(Optional.of(snapshot));
+    when(repo.findResponseByCode("C009")).thenReturn(Optional.of(response("C009")));
+    when(jdbcRepo.findByCodes(List.of("C001", "C009")))
+        .thenReturn(
+            new CustomerJdbcRepository.CodeLookup(
+                List.of(response("C001"), response("C009")), List.of()));
+
+    assertThat(service.getCustomer("C009").getCode()).isEqualTo("C009");
+    assertThat(service.getCustomers(List.of("C001", "C009"))).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("getRevision / getAllCustomers - ETagより古いスナップショットは使わずDBから読む")
+  void snapshot_olderThanRevision_readsDatabase() {
+    CustomerSnapshot snapshot = CustomerSnapshot.builder(5L).add(response("C001")).build();
+    when(snapshots.current()).thenReturn(Optional.of(snapshot));
+    when(repo.findAllResponses()).thenReturn(List.of(response("C001"), response("C002")));
+
+    assertThat(service.getRevision()).isEqualTo(5L);
+    assertThat(service.getAllCustomers(5L)).hasSize(1);
+    assertThat(service.getAllCustomers(6L)).hasSize(2);
+    verify(jdbcRepo, never()).findRevision();
+  }
+
+  @Test
+  @DisplayName("create - 登録した1件をスナップショットに差し込むよう依頼する")
+  void create_marksSnapshotInserted() {
+    when(repo.saveAndFlush(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    service.create(request("C001"));
+
+    verify(snapshots).markInserted(argThat(c -> c.getCode().equals("C001")));
   }
 
   // ======================================================
@@ -114,28 +478,158 @@ class CustomerServiceTest {
     req.setCode("C001");
     req.setCompanyName("Acme");
 
-    when(repo.existsByCode("C001")).thenReturn(true);
+    when(repo.saveAndFlush(any(Customer.class))).thenThrow(violation("ux_customer_code"));
 
     assertThatThrownBy(() -> service.create(req))
         .isInstanceOf(ResponseStatusException.class)
         .hasMessageContaining("顧客コードが重複しています");
   }
 
+  @Test
+  @DisplayName("create - コードの一意制約以外の違反は重複扱いにせずそのまま投げる")
+  void create_otherConstraintViolation_rethrown() {
+    when(repo.saveAndFlush(any(Customer.class)))
+        .thenThrow(violation("customer_master_company_name_not_null"));
+
+    assertThatThrownBy(() -> service.create(request("C001")))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  @DisplayName("createBatch - 並行登録による一意制約違反だけを重複として CONFLICT にする")
+  void createBatch_concurrentDuplicate_conflict() {
+    when(repo.findExistingCodes(any())).thenReturn(List.of());
+    when(repo.saveAllAndFlush(any()))
+        .thenThrow(violation("customer_master_code_key"))
+        .thenThrow(violation("customer_master_tax_code_check"));
+
+    assertThatThrownBy(() -> service.createBatch(List.of(request("C001"))))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("並行して同じ顧客コード");
+    assertThatThrownBy(() -> service.createBatch(List.of(request("C001"))))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
   @Test
   @DisplayName("getCustomers - 指定コードの一部が存在しない場合はNOT_FOUNDをスロー")
   void getCustomers_missingCode_throwsException() {
     List<String> codes = List.of("C001", "C002");
-    Customer customer = new Customer();
-    customer.setId(UUID.randomUUID());
-    customer.setCode("C001");
-    customer.setCompanyName("Acme");
-    customer.setBillingAddress("Tokyo");
-    customer.setTaxCode("T123");
-    customer.setCreditLimit(new BigDecimal("100"));
-    when(repo.findByCodeIn(codes)).thenReturn(List.of(customer));
+    when(jdbcRepo.findByCodes(codes))
+        .thenReturn(
+            new CustomerJdbcRepository.CodeLookup(List.of(response("C001")), List.of("C002")));
 
     assertThatThrownBy(() -> service.getCustomers(codes))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("見つかりません")
+        .hasMessageContaining("C002");
+  }
+
+  @Test
+  @DisplayName("getCustomer - 存在しないコードもキャッシュし、再問い合わせでDBを読まない")
+  void getCustomer_unknownCode_negativeCached() {
+    when(repo.findResponseByCode("C999")).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> service.getCustomer("C999"))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("見つかりません");
+    assertThatThrownBy(() -> service.getCustomer("C999"))
         .isInstanceOf(ResponseStatusException.class)
         .hasMessageContaining("見つかりません");
+
+    verify(repo, times(1)).findResponseByCode("C999");
+  }
+
+  @Test
+  @DisplayName("getCustomerPage - sizeが0以下ならBAD_REQUESTをスロー")
+  void getCustomerPage_invalidSize_throwsException() {
+    assertThatThrownBy(() -> service.getCustomerPage(null, 0, 0L))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("size");
+  }
+
+  @Test
+  @DisplayName("getCustomerPage - デコードできないカーソルはBAD_REQUESTをスロー")
+  void getCustomerPage_invalidCursor_throwsException() {
+    assertThatThrownBy(() -> service.getCustomerPage("!!!", null, 0L))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("カーソルが不正です");
+  }
+
+  @Test
+  @DisplayName("createBatch - 上限件数を超えるとBAD_REQUESTをスロー")
+  void createBatch_overMaxSize_throwsException() {
+    CustomerProperties properties = new CustomerProperties();
+    properties.getBatch().setMaxSize(1);
+    CustomerService limited =
+        new CustomerService(
+            repo,
+            jdbcRepo,
+            properties,
+            snapshots,
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
+
+    assertThatThrownBy(() -> limited.createBatch(List.of(request("C001"), request("C002"))))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("1件まで");
+    verifyNoInteractions(repo);
+  }
+
+  @Test
+  @DisplayName("normalizeLookupCodes - 重複除去後の件数が上限を超えるとBAD_REQUESTをスロー")
+  void normalizeLookupCodes_overMax_throwsException() {
+    CustomerProperties properties = new CustomerProperties();
+    properties.getLookup().setMaxCodes(1);
+    CustomerService limited =
+        new CustomerService(
+            repo,
+            jdbcRepo,
+            properties,
+            snapshots,
+            new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS));
+
+    assertThat(limited.normalizeLookupCodes(List.of("C001", "C001"))).containsExactly("C001");
+    assertThatThrownBy(() -> limited.normalizeLookupCodes(List.of("C001", "C002")))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("1件まで");
+  }
+
+  @Test
+  @DisplayName("search - 検索語が空ならBAD_REQUESTをスロー")
+  void search_blank_throwsException() {
+    assertThatThrownBy(() -> service.search("  ", null))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("検索語");
+    verifyNoInteractions(jdbcRepo);
+  }
+
+  @Test
+  @DisplayName("search - SQLがタイムアウトしたらSERVICE_UNAVAILABLEをスロー")
+  void search_timeout_throwsServiceUnavailable() {
+    when(jdbcRepo.search(any(), anyBoolean(), anyInt(), any()))
+        .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+    assertThatThrownBy(() -> service.search("アクメ", null))
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+  }
+
+  private static CustomerRequest request(String code) {
+    CustomerRequest req = new CustomerRequest();
+    req.setCode(code);
+    req.setCompanyName("Acme");
+    return req;
+  }
+
+  // Hibernate が制約名を取り出した状態の違反（Spring の例外変換後と同じ形）
+  private static DataIntegrityViolationException violation(String constraintName) {
+    return new DataIntegrityViolationException(
+        "could not execute statement",
+        new ConstraintViolationException(
+            "could not execute statement", new SQLException("violation", "23000"), constraintName));
+  }
+
+  private static CustomerResponse response(String code) {
+    return new CustomerResponse(code, "Acme", null, null, new BigDecimal("100.00"), true, 0L);
   }
 }
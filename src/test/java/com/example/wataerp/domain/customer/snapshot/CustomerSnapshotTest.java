@@ -0,0 +1,123 @@
+package com.example.wataerp.domain.customer.snapshot;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CustomerSnapshotTest {
+
+  private CustomerSnapshot snapshot;
+
+  @BeforeEach
+  void setup() {
+    // DBの順（ORDER BY code、en_US などの照合順序では小文字の a010 が B100 より前）で渡す
+    snapshot =
+        CustomerSnapshot.builder(1L)
+            .add(customer("A001", "Acme", "Tokyo", new BigDecimal("100.00")))
+            .add(customer("A002", "acme Japan", new String("Tokyo"), null))
+            .add(customer("a010", "alpha", "Osaka", null))
+            .add(customer("B100", "beta trading", "Tokyo", new BigDecimal("1234.5")))
+            .add(customer("C300", "Gamma", null, new BigDecimal("99999999999.99")))
+            .build();
+  }
+
+  @Test
+  @DisplayName("get - コードで引け、与信限度額は scale=2 で復元される")
+  void get() {
+    CustomerResponse res = snapshot.get("B100");
+
+    assertThat(res.getCompanyName()).isEqualTo("beta trading");
+    assertThat(res.getCreditLimit()).isEqualTo(new BigDecimal("1234.50"));
+    assertThat(snapshot.get("C300").getCreditLimit()).isEqualTo(new BigDecimal("99999999999.99"));
+    assertThat(snapshot.get("A002").getCreditLimit()).isEqualTo(new BigDecimal("0.00"));
+    assertThat(snapshot.get("Z999")).isNull();
+  }
+
+  @Test
+  @DisplayName("get - 返すDTOは毎回別インスタンス（書き換えてもスナップショットに影響しない）")
+  void get_returnsCopy() {
+    snapshot.get("A001").setCompanyName("changed");
+
+    assertThat(snapshot.get("A001").getCompanyName()).isEqualTo("Acme");
+  }
+
+  @Test
+  @DisplayName("pageAfter - 渡された順（DBの順）でカーソルより後ろを返す")
+  void pageAfter() {
+    assertThat(snapshot.pageAfter(null, 2).orElseThrow())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("A001", "A002");
+    assertThat(snapshot.pageAfter("A002", 10).orElseThrow())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("a010", "B100", "C300");
+    assertThat(snapshot.pageAfter("C300", 10).orElseThrow()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("pageAfter - カーソルのコードがスナップショットに無ければ空（DBで読む）")
+  void pageAfter_unknownCursor() {
+    assertThat(snapshot.pageAfter("A500", 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("findByCodePrefix - 前方一致をDBの順で返す（上限を超える一致は先頭から上限件数まで）")
+  void findByCodePrefix() {
+    assertThat(snapshot.findByCodePrefix("A00", 10))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("A001", "A002");
+    assertThat(snapshot.findByCodePrefix("A00", 1))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("A001");
+    assertThat(snapshot.findByCodePrefix("C300", 10))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("C300");
+    assertThat(snapshot.findByCodePrefix("D", 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("inserted - 直前のコードの後ろに差し込み、元のスナップショットは変えない")
+  void inserted() {
+    CustomerSnapshot next =
+        snapshot.inserted(customer("a005", "added", "Tokyo", BigDecimal.ONE), "A002", 2L);
+
+    assertThat(next.getRevision()).isEqualTo(2L);
+    assertThat(next.getLoadedAt()).isEqualTo(snapshot.getLoadedAt());
+    assertThat(next.all())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("A001", "A002", "a005", "a010", "B100", "C300");
+    assertThat(next.get("a005").getCreditLimit()).isEqualTo(new BigDecimal("1.00"));
+    assertThat(next.get("a010").getCompanyName()).isEqualTo("alpha");
+    assertThat(next.findByCodePrefix("a0", 10))
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("a005", "a010");
+    assertThat(snapshot.size()).isEqualTo(5);
+
+    CustomerSnapshot first = snapshot.inserted(customer("0001", "first", null, null), null, 2L);
+    assertThat(first.pageAfter(null, 2).orElseThrow())
+        .extracting(CustomerResponse::getCode)
+        .containsExactly("0001", "A001");
+  }
+
+  @Test
+  @DisplayName("inserted - 既にあるコード・直前のコードが無い場合は null（全件を読み直す）")
+  void inserted_notApplicable() {
+    assertThat(snapshot.inserted(customer("A001", "dup", null, null), null, 2L)).isNull();
+    assertThat(snapshot.inserted(customer("A003", "x", null, null), "A0025", 2L)).isNull();
+  }
+
+  @Test
+  @DisplayName("build - 同じ住所文字列は1つのインスタンスを共有する")
+  void build_internsRepeatedStrings() {
+    assertThat(snapshot.get("A002").getBillingAddress())
+        .isSameAs(snapshot.get("A001").getBillingAddress());
+  }
+
+  private static CustomerResponse customer(
+      String code, String name, String billingAddress, BigDecimal creditLimit) {
+    return new CustomerResponse(code, name, billingAddress, null, creditLimit, true, 0L);
+  }
+}
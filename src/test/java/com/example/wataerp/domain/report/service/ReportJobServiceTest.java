@@ -0,0 +1,177 @@
+package com.example.wataerp.domain.report.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.wataerp.config.ReportProperties;
+import com.example.wataerp.domain.report.dto.ReportJobResponse;
+import com.example.wataerp.domain.report.entity.ReportJob;
+import com.example.wataerp.domain.report.entity.ReportJobStatus;
+import com.example.wataerp.domain.report.entity.ReportType;
+import com.example.wataerp.domain.report.generator.ReportGenerator;
+import com.example.wataerp.domain.report.repository.ReportJobRepository;
+import com.example.wataerp.shared.filter.CorrelationIdFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.web.server.ResponseStatusException;
+
+class ReportJobServiceTest {
+
+  @TempDir Path storageDir;
+
+  private ReportJobRepository repo;
+  private ReportProperties properties;
+  private final Map<UUID, ReportJob> saved = new HashMap<>();
+
+  @BeforeEach
+  void setup() {
+    repo = mock(ReportJobRepository.class);
+    when(repo.save(any(ReportJob.class)))
+        .thenAnswer(
+            inv -> {
+              ReportJob job = inv.getArgument(0);
+              saved.put(job.getId(), job);
+              return job;
+            });
+    when(repo.findById(any(UUID.class)))
+        .thenAnswer(inv -> Optional.ofNullable(saved.get(inv.<UUID>getArgument(0))));
+
+    properties = new ReportProperties();
+    properties.setStorageDir(storageDir);
+  }
+
+  @Test
+  @DisplayName("submit - ワーカーで生成し、完了後はファイルを取得できる")
+  void submit_generatesFile() throws Exception {
+    ReportJobService service =
+        service(
+            new SyncTaskExecutor(),
+            generator(out -> out.write("xlsx".getBytes(StandardCharsets.UTF_8))));
+
+    ReportJobResponse accepted = service.submit(ReportType.CUSTOMER_XLSX);
+
+    ReportJobResponse job = service.getJob(accepted.getId());
+    assertThat(job.getStatus()).isEqualTo(ReportJobStatus.SUCCEEDED.name());
+    assertThat(job.getFileSize()).isEqualTo(4L);
+    assertThat(job.getExpiresAt()).isAfter(job.getFinishedAt());
+
+    ReportJobService.ReportFile file = service.getFile(accepted.getId());
+    assertThat(Files.readString(file.path())).isEqualTo("xlsx");
+  }
+
+  @Test
+  @DisplayName("submit - 応答はワーカーの実行前の状態（QUEUED）で組み立てる")
+  void submit_responseBuiltBeforeWorkerRuns() {
+    // 受付スレッドで即座に実行する Executor でも、応答がワーカーの途中状態を含まない
+    ReportJobService service = service(new SyncTaskExecutor(), generator(out -> out.write(1)));
+
+    ReportJobResponse accepted = service.submit(ReportType.CUSTOMER_XLSX);
+
+    assertThat(accepted.getStatus()).isEqualTo(ReportJobStatus.QUEUED.name());
+    assertThat(accepted.getStartedAt()).isNull();
+    assertThat(service.getJob(accepted.getId()).getStatus())
+        .isEqualTo(ReportJobStatus.SUCCEEDED.name());
+  }
+
+  @Test
+  @DisplayName("submit - 相関IDは列の長さ（64文字）に切り詰めて保存する")
+  void submit_longCorrelationId_truncated() {
+    ReportJobService service = service(task -> {}, generator(out -> out.write(1)));
+
+    MDC.put(CorrelationIdFilter.MDC_KEY, "x".repeat(100));
+    try {
+      ReportJobResponse accepted = service.submit(ReportType.CUSTOMER_XLSX);
+      assertThat(saved.get(accepted.getId()).getCorrelationId()).hasSize(64);
+    } finally {
+      MDC.remove(CorrelationIdFilter.MDC_KEY);
+    }
+  }
+
+  @Test
+  @DisplayName("submit - 生成に失敗したジョブはFAILEDになり、ファイルは取得できない")
+  void submit_generatorFails_jobFailed() {
+    ReportJobService service =
+        service(
+            new SyncTaskExecutor(),
+            generator(
+                out -> {
+                  throw new IOException("disk full");
+                }));
+
+    ReportJobResponse accepted = service.submit(ReportType.CUSTOMER_XLSX);
+
+    ReportJobResponse job = service.getJob(accepted.getId());
+    assertThat(job.getStatus()).isEqualTo(ReportJobStatus.FAILED.name());
+    assertThat(job.getErrorMessage()).contains("disk full");
+    assertThatThrownBy(() -> service.getFile(accepted.getId()))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("ありません");
+  }
+
+  @Test
+  @DisplayName("submit - 受付上限を超えるとTOO_MANY_REQUESTSをスロー")
+  void submit_overMaxPending_throwsException() {
+    properties.setMaxPending(1);
+    // 実行しない Executor（受付済みのまま残る）
+    ReportJobService service = service(task -> {}, generator(out -> out.write(1)));
+
+    service.submit(ReportType.CUSTOMER_XLSX);
+
+    assertThatThrownBy(() -> service.submit(ReportType.CUSTOMER_XLSX))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("上限");
+  }
+
+  @Test
+  @DisplayName("getFile - 生成中のジョブはCONFLICTをスロー")
+  void getFile_running_throwsConflict() {
+    ReportJobService service = service(task -> {}, generator(out -> out.write(1)));
+
+    ReportJobResponse accepted = service.submit(ReportType.CUSTOMER_XLSX);
+
+    assertThatThrownBy(() -> service.getFile(accepted.getId()))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("生成中");
+  }
+
+  private ReportJobService service(TaskExecutor executor, ReportGenerator generator) {
+    ExecutorService executorService = new ExecutorServiceAdapter(executor);
+    return new ReportJobService(
+        repo, new ReportFileStore(properties), executorService, properties, List.of(generator));
+  }
+
+  interface Body {
+    void writeTo(OutputStream out) throws IOException;
+  }
+
+  private static ReportGenerator generator(Body body) {
+    return new ReportGenerator() {
+      @Override
+      public ReportType type() {
+        return ReportType.CUSTOMER_XLSX;
+      }
+
+      @Override
+      public void generate(OutputStream out) throws IOException {
+        body.writeTo(out);
+      }
+    };
+  }
+}
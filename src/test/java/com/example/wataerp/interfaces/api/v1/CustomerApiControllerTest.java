@@ -5,11 +5,14 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.wataerp.domain.customer.dto.CustomerBatchResponse;
+import com.example.wataerp.domain.customer.dto.CustomerPageResponse;
 import com.example.wataerp.domain.customer.dto.CustomerRequest;
 import com.example.wataerp.domain.customer.dto.CustomerResponse;
 import com.example.wataerp.domain.customer.service.CustomerService;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -19,6 +22,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.server.ResponseStatusException;
 
 @WebMvcTest(CustomerApiController.class)
@@ -67,6 +71,37 @@ class CustomerApiControllerTest {
         .andExpect(jsonPath("$.companyName").value("Acme"));
   }
 
+  @Test
+  @DisplayName("POST /api/v1/customers/batch - 一括登録 正常系")
+  void createBatch_success() throws Exception {
+    Mockito.when(service.createBatch(anyList()))
+        .thenReturn(
+            new CustomerBatchResponse(
+                List.of(
+                    new CustomerBatchResponse.Result(
+                        0, "C001", CustomerBatchResponse.Status.CREATED, null),
+                    new CustomerBatchResponse.Result(
+                        1, "C002", CustomerBatchResponse.Status.DUPLICATE, "重複"))));
+
+    mvc.perform(
+            post("/api/v1/customers/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {
+                        "customers": [
+                            {"code": "C001", "companyName": "Acme"},
+                            {"code": "C002", "companyName": "Beta"}
+                        ]
+                    }
+                    """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"));
+  }
+
   @Test
   @DisplayName("GET /api/v1/customers/all - 全件取得 正常系")
   void getAllCustomers_success() throws Exception {
@@ -85,14 +120,45 @@ class CustomerApiControllerTest {
     response2.setCreditLimit(new BigDecimal("200.00"));
 
     List<CustomerResponse> list = List.of(response1, response2);
-    Mockito.when(service.getCustomers(null)).thenReturn(list);
+    Mockito.when(service.getRevision()).thenReturn(7L);
+    Mockito.when(service.getAllCustomers(7L)).thenReturn(list);
 
     mvc.perform(get("/api/v1/customers/all"))
         .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"r7\""))
         .andExpect(jsonPath("$[0].code").value("C001"))
         .andExpect(jsonPath("$[1].code").value("C002"));
   }
 
+  @Test
+  @DisplayName("GET /api/v1/customers/all - If-None-Match が変更カウンタと一致すれば一覧を読まずに304")
+  void getAllCustomers_notModified() throws Exception {
+    Mockito.when(service.getRevision()).thenReturn(7L);
+
+    mvc.perform(get("/api/v1/customers/all").header("If-None-Match", "\"r7\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"r7\""))
+        .andExpect(content().string(""));
+
+    Mockito.verify(service, Mockito.never()).getAllCustomers(anyLong());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers - カーソルページング 正常系")
+  void getCustomerPage_success() throws Exception {
+    CustomerResponse response1 = new CustomerResponse();
+    response1.setCode("C001");
+    response1.setCompanyName("Acme");
+
+    Mockito.when(service.getCustomerPage("QzAwMA", 1, 0L))
+        .thenReturn(new CustomerPageResponse(List.of(response1), "QzAwMQ"));
+
+    mvc.perform(get("/api/v1/customers").param("cursor", "QzAwMA").param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].code").value("C001"))
+        .andExpect(jsonPath("$.next").value("QzAwMQ"));
+  }
+
   @Test
   @DisplayName("GET /api/v1/customers/{code} - 単一取得 正常系")
   void getCustomerByCode_success() throws Exception {
@@ -102,12 +168,32 @@ class CustomerApiControllerTest {
     response.setBillingAddress("Tokyo");
     response.setTaxCode("T1234567890123");
     response.setCreditLimit(new BigDecimal("100.00"));
+    response.setVersion(3L);
     Mockito.when(service.getCustomer("C001")).thenReturn(response);
 
     mvc.perform(get("/api/v1/customers/C001"))
         .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"3\""))
         .andExpect(jsonPath("$.code").value("C001"))
-        .andExpect(jsonPath("$.companyName").value("Acme"));
+        .andExpect(jsonPath("$.companyName").value("Acme"))
+        .andExpect(jsonPath("$.version").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/{code} - If-None-Match が行バージョンと一致すれば本文なしの304")
+  void getCustomerByCode_notModified() throws Exception {
+    CustomerResponse response = new CustomerResponse();
+    response.setCode("C001");
+    response.setVersion(3L);
+    Mockito.when(service.getCustomer("C001")).thenReturn(response);
+
+    mvc.perform(get("/api/v1/customers/C001").header("If-None-Match", "\"3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    mvc.perform(get("/api/v1/customers/C001").header("If-None-Match", "\"2\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"3\""));
   }
 
   @Test
@@ -135,6 +221,54 @@ class CustomerApiControllerTest {
         .andExpect(jsonPath("$[1].code").value("C002"));
   }
 
+  @Test
+  @DisplayName("POST /api/v1/customers/lookup - 見つかった顧客と未登録コードを返す")
+  void lookup_success() throws Exception {
+    Mockito.when(service.normalizeLookupCodes(List.of("C001", "C999", "C001")))
+        .thenReturn(List.of("C001", "C999"));
+    Mockito.when(service.lookup(eq(List.of("C001", "C999")), any()))
+        .thenAnswer(
+            inv -> {
+              Consumer<CustomerResponse> found = inv.getArgument(1);
+              CustomerResponse response = new CustomerResponse();
+              response.setCode("C001");
+              found.accept(response);
+              return List.of("C999");
+            });
+
+    MvcResult result =
+        mvc.perform(
+                post("/api/v1/customers/lookup")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        """
+                        {"codes": ["C001", "C999", "C001"]}
+                        """))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.found.length()").value(1))
+        .andExpect(jsonPath("$.found[0].code").value("C001"))
+        .andExpect(jsonPath("$.missing[0]").value("C999"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/search - 検索結果を返す")
+  void search_success() throws Exception {
+    CustomerResponse response = new CustomerResponse();
+    response.setCode("C001");
+    response.setCompanyName("アクメ商事");
+    Mockito.when(service.search("アクメ", 5)).thenReturn(List.of(response));
+
+    mvc.perform(get("/api/v1/customers/search").param("q", "アクメ").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].code").value("C001"))
+        .andExpect(jsonPath("$[0].companyName").value("アクメ商事"));
+  }
+
   // ======================================================
   // 異常系
   // ======================================================
@@ -185,6 +319,34 @@ class CustomerApiControllerTest {
     mvc.perform(get("/api/v1/customers/by-codes")).andExpect(status().isBadRequest());
   }
 
+  @Test
+  @DisplayName("POST /api/v1/customers/batch - 要素のバリデーションエラーは位置付きで400")
+  void createBatch_validationError() throws Exception {
+    mvc.perform(
+            post("/api/v1/customers/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"customers": [{"code": "C001", "companyName": "Acme"}, {"code": "C 002"}]}
+                    """))
+        .andExpect(status().isBadRequest())
+        .andExpect(
+            jsonPath("$.violations[*].field")
+                .value(org.hamcrest.Matchers.hasItem("customers[1].code")));
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/customers/lookup - 空のコード一覧は400エラー")
+  void lookup_emptyCodes() throws Exception {
+    mvc.perform(
+            post("/api/v1/customers/lookup")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"codes\": []}"))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   @DisplayName("POST /api/v1/customers - バリデーションエラー（空のJSON）")
   void createCustomer_validationError() throws Exception {
@@ -0,0 +1,70 @@
+package com.example.wataerp.interfaces.api.v1;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.wataerp.shared.filter.SqlStatsFilter;
+import com.example.wataerp.shared.sql.SqlBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** 実際のエンドポイントが発行するSQL本数を、SQL計測のレスポンスヘッダで確認する（H2） */
+@SpringBootTest(
+    properties = {
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "wataerp.sql-stats.enabled=true",
+      "wataerp.sql-stats.response-headers=true",
+      "wataerp.admission.enabled=false"
+    })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class CustomerApiSqlBudgetTest {
+
+  @Autowired private MockMvc mvc;
+
+  @Test
+  @DisplayName("POST /api/v1/customers - 登録は INSERT 1本")
+  void create_singleStatement() throws Exception {
+    mvc.perform(
+            post("/api/v1/customers")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"code": "B001", "companyName": "Acme", "creditLimit": 100.00}
+                    """))
+        .andExpect(status().isCreated())
+        .andExpect(header().string(SqlStatsFilter.STATEMENTS_HEADER, "1"))
+        .andExpect(SqlBudget.statementsAtMost(1));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/{code} - キャッシュに無いコードはSELECT 1本、キャッシュにあればDBを読まない")
+  void getCustomer_atMostOneStatement() throws Exception {
+    mvc.perform(
+            post("/api/v1/customers")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"code": "B002", "companyName": "Globex", "creditLimit": 100.00}
+                    """))
+        .andExpect(status().isCreated());
+
+    mvc.perform(get("/api/v1/customers/B999"))
+        .andExpect(status().isNotFound())
+        .andExpect(SqlBudget.statementsAtMost(1));
+    mvc.perform(get("/api/v1/customers/B002"))
+        .andExpect(status().isOk())
+        .andExpect(SqlBudget.statementsAtMost(0));
+  }
+}
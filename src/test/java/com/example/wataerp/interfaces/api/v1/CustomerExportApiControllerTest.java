@@ -0,0 +1,168 @@
+package com.example.wataerp.interfaces.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.wataerp.domain.customer.dto.CustomerResponse;
+import com.example.wataerp.domain.customer.service.CustomerExportService;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+@WebMvcTest(CustomerExportApiController.class)
+@WithMockUser
+class CustomerExportApiControllerTest {
+
+  @Autowired private MockMvc mvc;
+
+  @MockitoBean private CustomerExportService exportService;
+
+  @BeforeEach
+  void setup() {
+    doAnswer(
+            inv -> {
+              Consumer<CustomerResponse> consumer = inv.getArgument(0);
+              consumer.accept(customer("C001", "Acme"));
+              consumer.accept(customer("C002", "Beta"));
+              return null;
+            })
+        .when(exportService)
+        .exportAll(any());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/export - 既定はNDJSONで1行1顧客")
+  void export_ndjson() throws Exception {
+    MvcResult result =
+        mvc.perform(get("/api/v1/customers/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string(startsWith("{\"code\":\"C001\"")))
+        .andExpect(content().string(containsString("}\n{\"code\":\"C002\"")))
+        .andExpect(content().string(endsWith("}\n")));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/export?format=json - JSON配列で出力")
+  void export_jsonArray() throws Exception {
+    MvcResult result =
+        mvc.perform(get("/api/v1/customers/export").param("format", "json"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$[0].code").value("C001"))
+        .andExpect(jsonPath("$[1].code").value("C002"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/export?format=xml - 未対応のformatは400")
+  void export_unknownFormat() throws Exception {
+    mvc.perform(get("/api/v1/customers/export").param("format", "xml"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/export/csv - COPYの出力をそのままCSVで返す")
+  void exportCsv_plain() throws Exception {
+    stubCsv("code,companyName\nC001,Acme\n");
+
+    MvcResult result =
+        mvc.perform(
+                get("/api/v1/customers/export/csv")
+                    .param("activeOnly", "true")
+                    .param("codeFrom", "C001"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+        .andExpect(header().string("Content-Disposition", containsString("customers.csv")))
+        .andExpect(content().string("code,companyName\nC001,Acme\n"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/export/csv?gzip=true - gzip圧縮して返す")
+  void exportCsv_gzip() throws Exception {
+    stubCsv("code,companyName\nC001,Acme\n");
+
+    MvcResult result =
+        mvc.perform(get("/api/v1/customers/export/csv").param("gzip", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    byte[] body =
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", containsString("customers.csv.gz")))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+          .isEqualTo("code,companyName\nC001,Acme\n");
+    }
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers/export/csv - コード範囲の書式不正はストリーミング前に400")
+  void exportCsv_invalidCodeRange() throws Exception {
+    doThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "codeFromの書式が違います"))
+        .when(exportService)
+        .checkCodeRange(eq("C'1"), isNull());
+
+    mvc.perform(get("/api/v1/customers/export/csv").param("codeFrom", "C'1"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(containsString("codeFrom")));
+  }
+
+  private void stubCsv(String csv) {
+    doAnswer(
+            inv -> {
+              OutputStream out = inv.getArgument(3);
+              out.write(csv.getBytes(StandardCharsets.UTF_8));
+              return 2L;
+            })
+        .when(exportService)
+        .exportCsv(anyBoolean(), any(), any(), any());
+  }
+
+  private static CustomerResponse customer(String code, String companyName) {
+    CustomerResponse res = new CustomerResponse();
+    res.setCode(code);
+    res.setCompanyName(companyName);
+    res.setCreditLimit(new BigDecimal("100.00"));
+    res.setActive(true);
+    return res;
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.wataerp.shared.admission;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test
+  @DisplayName("上限に達したら取れず、release で空く")
+  void tryAcquire_rejectsAtLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(2);
+
+    limiter.release(BASE_RTT, false);
+    assertThat(limiter.tryAcquire()).isTrue();
+  }
+
+  @Test
+  @DisplayName("上限まで使っていてレイテンシが平常なら、上限を広げる")
+  void steadyLatency_growsLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.5, 0.2);
+
+    runRounds(limiter, 50, BASE_RTT);
+
+    assertThat(limiter.getLimit()).isGreaterThan(10);
+  }
+
+  @Test
+  @DisplayName("レイテンシが許容倍率を超えて伸びたら上限を下げ（下限で止まる）、戻れば広げ直す")
+  void slowdown_shrinksLimitAndRecovers() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 1.5, 0.2);
+    runRounds(limiter, 20, BASE_RTT);
+    assertThat(limiter.getLimit()).isEqualTo(100);
+
+    runRounds(limiter, 3, BASE_RTT * 10);
+    assertThat(limiter.getLimit()).isEqualTo(4);
+
+    runRounds(limiter, 10, BASE_RTT);
+    assertThat(limiter.getLimit()).isGreaterThan(4);
+  }
+
+  @Test
+  @DisplayName("過負荷による失敗では上限を1割下げる")
+  void dropped_backsOff() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 4, 100, 1.5, 0.2);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    limiter.release(BASE_RTT, true);
+
+    assertThat(limiter.getLimit()).isEqualTo(45);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  @DisplayName("ignore は枠を返すだけで、上限も処理時間の基準も変えない")
+  void ignore_releasesWithoutUpdating() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 1.5, 0.2);
+    runRounds(limiter, 20, BASE_RTT);
+    assertThat(limiter.getLimit()).isEqualTo(100);
+
+    for (int r = 0; r < 3; r++) {
+      int acquired = 0;
+      while (limiter.tryAcquire()) {
+        acquired++;
+      }
+      for (int i = 0; i < acquired; i++) {
+        limiter.ignore();
+      }
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(100);
+    assertThat(limiter.getInFlight()).isZero();
+    runRounds(limiter, 1, BASE_RTT);
+    assertThat(limiter.getLimit()).isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("上限の半分も使っていなければ広げない")
+  void underused_doesNotGrow() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.5, 0.2);
+
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire();
+      limiter.release(BASE_RTT, false);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  // 上限いっぱいまで取ってから、全部を同じ処理時間で返す
+  private static void runRounds(AdaptiveConcurrencyLimiter limiter, int rounds, long rtt) {
+    for (int r = 0; r < rounds; r++) {
+      int acquired = 0;
+      while (limiter.tryAcquire()) {
+        acquired++;
+      }
+      for (int i = 0; i < acquired; i++) {
+        limiter.release(rtt, false);
+      }
+    }
+  }
+}
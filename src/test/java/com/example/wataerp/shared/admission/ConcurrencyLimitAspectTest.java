@@ -0,0 +1,158 @@
+package com.example.wataerp.shared.admission;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+class ConcurrencyLimitAspectTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private AdaptiveConcurrencyLimiter limiter;
+  private Dao dao;
+
+  @ConcurrencyLimited
+  public static class Dao {
+
+    final AtomicInteger calls = new AtomicInteger();
+    Supplier<String> body = () -> "ok";
+
+    public String find() {
+      calls.incrementAndGet();
+      return body.get();
+    }
+  }
+
+  // Spring Data の repository と同じく、メソッドに付けたインターフェースを JDK プロキシで実装する
+  public interface Repo {
+
+    @ConcurrencyLimited
+    String find();
+
+    String findAll();
+  }
+
+  @BeforeEach
+  void setUp() {
+    limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.5, 0.2);
+    dao = proxy(new Dao());
+  }
+
+  @Test
+  @DisplayName("上限に空きがあれば呼び出し、終わったら枠を返す")
+  void underLimit_proceedsAndReleases() {
+    assertThat(dao.find()).isEqualTo("ok");
+
+    assertThat(limiter.getInFlight()).isZero();
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("上限に達していれば呼び出さずに ConcurrencyLimitExceededException を投げ、断った件数を数える")
+  void atLimit_shedsWithoutCalling() {
+    Dao target = new Dao();
+    Dao limited = proxy(target);
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    assertThatThrownBy(limited::find).isInstanceOf(ConcurrencyLimitExceededException.class);
+
+    assertThat(target.calls).hasValue(0);
+    assertThat(limiter.getInFlight()).isEqualTo(10);
+    assertThat(meterRegistry.get("wataerp.concurrency.shed").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("コネクションを取れなかった失敗（プールの空き待ちタイムアウト）は過負荷として上限を縮める")
+  void connectionFailures_areDropped() {
+    Dao target = new Dao();
+    Dao limited = proxy(target);
+
+    target.body =
+        () -> {
+          throw new CannotGetJdbcConnectionException("pool exhausted");
+        };
+    assertThatThrownBy(limited::find).isInstanceOf(CannotGetJdbcConnectionException.class);
+    assertThat(limiter.getLimit()).isEqualTo(9);
+
+    target.body =
+        () -> {
+          throw new CannotCreateTransactionException(
+              "no connection",
+              new JDBCConnectionException(
+                  "Unable to acquire JDBC Connection",
+                  new SQLTransientConnectionException("wataerp - Connection is not available")));
+        };
+    assertThatThrownBy(limited::find).isInstanceOf(CannotCreateTransactionException.class);
+    assertThat(limiter.getLimit()).isEqualTo(8);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  @DisplayName("検索の statement_timeout・一意制約違反・楽観ロックの競合などは上限も平常時の基準も変えない")
+  void otherFailures_areIgnored() {
+    Dao target = new Dao();
+    Dao limited = proxy(target);
+    List<Supplier<RuntimeException>> failures =
+        List.of(
+            () -> new QueryTimeoutException("canceling statement due to statement timeout"),
+            () -> new DataIntegrityViolationException("duplicate"),
+            () -> new OptimisticLockingFailureException("stale"),
+            () -> new CannotCreateTransactionException("other", new IllegalStateException()));
+
+    for (Supplier<RuntimeException> failure : failures) {
+      target.body =
+          () -> {
+            throw failure.get();
+          };
+      for (int i = 0; i < 10; i++) {
+        assertThatThrownBy(limited::find).isInstanceOf(RuntimeException.class);
+      }
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(10);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  @DisplayName("インターフェースのメソッドに付けた場合は、そのメソッドだけが対象になる")
+  void interfaceMethodAnnotation_onlyThatMethod() {
+    Repo target =
+        (Repo)
+            Proxy.newProxyInstance(
+                Repo.class.getClassLoader(),
+                new Class<?>[] {Repo.class},
+                (p, method, args) -> method.getName());
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.addAspect(new ConcurrencyLimitAspect(limiter, meterRegistry));
+    Repo repo = factory.getProxy();
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+    }
+
+    assertThatThrownBy(repo::find).isInstanceOf(ConcurrencyLimitExceededException.class);
+    assertThat(repo.findAll()).isEqualTo("findAll");
+  }
+
+  private Dao proxy(Dao target) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new ConcurrencyLimitAspect(limiter, meterRegistry));
+    return factory.getProxy();
+  }
+}
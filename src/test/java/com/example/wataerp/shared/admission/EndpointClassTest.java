@@ -0,0 +1,40 @@
+package com.example.wataerp.shared.admission;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EndpointClassTest {
+
+  @Test
+  @DisplayName("1件の参照・一覧系・ダウンロード・書き込みに分け、API以外は対象外にする")
+  void of_classifiesPaths() {
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/C001")).isEqualTo(EndpointClass.SINGLE);
+    assertThat(EndpointClass.of("GET", "/api/v1/reports/0192")).isEqualTo(EndpointClass.SINGLE);
+
+    assertThat(EndpointClass.of("GET", "/api/v1/customers")).isEqualTo(EndpointClass.LIST);
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/search")).isEqualTo(EndpointClass.LIST);
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/by-codes"))
+        .isEqualTo(EndpointClass.LIST);
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/all")).isEqualTo(EndpointClass.EXPORT);
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/export"))
+        .isEqualTo(EndpointClass.EXPORT);
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/export/csv"))
+        .isEqualTo(EndpointClass.EXPORT);
+    assertThat(EndpointClass.of("GET", "/api/v1/customers/export/xlsx"))
+        .isEqualTo(EndpointClass.EXPORT);
+    assertThat(EndpointClass.of("GET", "/api/v1/reports/0192/file"))
+        .isEqualTo(EndpointClass.EXPORT);
+    assertThat(EndpointClass.of("POST", "/api/v1/customers/lookup"))
+        .isEqualTo(EndpointClass.EXPORT);
+
+    assertThat(EndpointClass.of("POST", "/api/v1/customers")).isEqualTo(EndpointClass.WRITE);
+    assertThat(EndpointClass.of("POST", "/api/v1/customers/batch")).isEqualTo(EndpointClass.WRITE);
+    assertThat(EndpointClass.of("POST", "/api/v1/customers/import"))
+        .isEqualTo(EndpointClass.WRITE);
+
+    assertThat(EndpointClass.of("GET", "/actuator/health")).isNull();
+    assertThat(EndpointClass.of("GET", "/customers")).isNull();
+  }
+}
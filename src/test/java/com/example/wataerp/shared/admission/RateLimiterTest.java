@@ -0,0 +1,61 @@
+package com.example.wataerp.shared.admission;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  private final AtomicLong now = new AtomicLong(123_456_789L);
+
+  @Test
+  @DisplayName("burst 件までは続けて通し、超えたら次の補充までの時間を返す")
+  void allowsBurstThenRejects() {
+    RateLimiter limiter = new RateLimiter(10, 3, now::get);
+
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  @Test
+  @DisplayName("時間が経てば rate の分だけ補充され、空いていた分は burst までしか溜まらない")
+  void refillsAtRate() {
+    RateLimiter limiter = new RateLimiter(10, 2, now::get);
+    limiter.tryAcquire("a");
+    limiter.tryAcquire("a");
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isPositive();
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isPositive();
+  }
+
+  @Test
+  @DisplayName("クライアントごとに別のバケットで数える")
+  void bucketsArePerClient() {
+    RateLimiter limiter = new RateLimiter(1, 1, now::get);
+
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isPositive();
+    assertThat(limiter.tryAcquire("b")).isZero();
+  }
+
+  @Test
+  @DisplayName("nanoTime が負の値でも比較を誤らない")
+  void negativeClock() {
+    now.set(Long.MIN_VALUE + 1_000);
+    RateLimiter limiter = new RateLimiter(1, 1, now::get);
+
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isPositive();
+  }
+}
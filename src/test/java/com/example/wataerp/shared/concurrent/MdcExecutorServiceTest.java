@@ -0,0 +1,65 @@
+package com.example.wataerp.shared.concurrent;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.example.wataerp.shared.sql.SqlStatsRegistry;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class MdcExecutorServiceTest {
+
+  @AfterEach
+  void clear() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("submit / invokeAll でも投入時のMDCが仮想スレッドへ引き継がれる")
+  void submitAndInvokeAll_propagateMdc() throws Exception {
+    MDC.put("correlationId", "cid-1");
+    Callable<String> task = () -> MDC.get("correlationId");
+
+    try (ExecutorService executor =
+        new MdcExecutorService(Executors.newVirtualThreadPerTaskExecutor())) {
+      assertThat(executor.submit(task).get()).isEqualTo("cid-1");
+
+      List<Future<String>> futures = executor.invokeAll(List.of(task, task));
+      for (Future<String> future : futures) {
+        assertThat(future.get()).isEqualTo("cid-1");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("SQL計測の計測IDは引き継がず、投入元のMDCはそのまま残す")
+  void sqlStatsKey_notPropagated() throws Exception {
+    MDC.put("correlationId", "cid-1");
+    MDC.put(SqlStatsRegistry.MDC_KEY, "stats-1");
+
+    try (ExecutorService executor =
+        new MdcExecutorService(Executors.newVirtualThreadPerTaskExecutor())) {
+      assertThat(executor.submit(() -> MDC.get(SqlStatsRegistry.MDC_KEY)).get()).isNull();
+      assertThat(executor.submit(() -> MDC.get("correlationId")).get()).isEqualTo("cid-1");
+    }
+    assertThat(MDC.get(SqlStatsRegistry.MDC_KEY)).isEqualTo("stats-1");
+  }
+
+  @Test
+  @DisplayName("shutdown は包んだ Executor に伝わる")
+  void shutdown_delegates() {
+    ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor();
+    ExecutorService executor = new MdcExecutorService(delegate);
+
+    executor.shutdown();
+
+    assertThat(delegate.isShutdown()).isTrue();
+    assertThat(executor.isShutdown()).isTrue();
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.wataerp.shared.concurrent;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class MdcTaskDecoratorTest {
+
+  private final MdcTaskDecorator decorator = new MdcTaskDecorator();
+
+  @AfterEach
+  void clear() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("decorate - 投入時のMDCが仮想スレッドへ引き継がれる")
+  void decorate_propagatesToVirtualThread() throws Exception {
+    MDC.put("correlationId", "cid-1");
+    CompletableFuture<String> seen = new CompletableFuture<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.execute(decorator.decorate(() -> seen.complete(MDC.get("correlationId"))));
+    }
+
+    assertThat(seen.get()).isEqualTo("cid-1");
+  }
+
+  @Test
+  @DisplayName("decorate - 実行後はスレッドのMDCを元に戻す（プールの再利用で値が残らない）")
+  void decorate_restoresPreviousContext() throws Exception {
+    MDC.put("correlationId", "cid-1");
+    Runnable task = decorator.decorate(() -> {});
+    MDC.clear();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(task).get();
+      assertThat(executor.submit(() -> MDC.get("correlationId")).get()).isNull();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.wataerp.shared.concurrent;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void addRegistry() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void removeRegistry() {
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  @DisplayName("実行中の同じキーの呼び出しは、1回の実行結果を共有する")
+  void concurrentCalls_shareOneExecution() throws Exception {
+    SingleFlight<String, String> flight = new SingleFlight<>("test-share", Duration.ofSeconds(5));
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    int callers = 20;
+
+    List<Future<String>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < callers; i++) {
+        results.add(
+            executor.submit(
+                () ->
+                    flight.execute(
+                        "C001",
+                        () -> {
+                          executions.incrementAndGet();
+                          await(release);
+                          return "Acme";
+                        })));
+      }
+      // 全員が実行中の1回に合流してから終わらせる
+      waitUntil(() -> coalesced("test-share") >= callers - 1);
+      release.countDown();
+      for (Future<String> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Acme");
+      }
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(executions).hasValue(1);
+    assertThat(flight.inFlightCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("実行した側の例外は待っていた側にも投げる。終わった後の呼び出しは新しく実行する")
+  void failure_isSharedAndNotRetained() throws Exception {
+    SingleFlight<String, String> flight = new SingleFlight<>("test-failure", Duration.ofSeconds(5));
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<String> leader =
+          executor.submit(
+              () ->
+                  flight.execute(
+                      "C001",
+                      () -> {
+                        await(release);
+                        throw new IllegalStateException("db down");
+                      }));
+      waitUntil(() -> flight.inFlightCount() > 0);
+      Future<String> follower = executor.submit(() -> flight.execute("C001", () -> "unused"));
+      waitUntil(() -> coalesced("test-failure") >= 1);
+      release.countDown();
+
+      assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(IllegalStateException.class);
+      assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(IllegalStateException.class)
+          .hasRootCauseMessage("db down");
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(flight.execute("C001", () -> "Acme")).isEqualTo("Acme");
+    assertThat(
+            registry
+                .get("wataerp.singleflight.calls")
+                .tags("name", "test-failure", "result", "executed")
+                .counter()
+                .count())
+        .isEqualTo(2.0);
+  }
+
+  @Test
+  @DisplayName("待つ側は上限を超えたら諦める。実行した側はそのまま完了し、結果を返す")
+  void slowExecution_followerTimesOut() throws Exception {
+    SingleFlight<String, String> flight = new SingleFlight<>("test-timeout", Duration.ofMillis(50));
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<String> leader =
+          executor.submit(
+              () ->
+                  flight.execute(
+                      "C001",
+                      () -> {
+                        await(release);
+                        return "Acme";
+                      }));
+      waitUntil(() -> flight.inFlightCount() > 0);
+
+      long started = System.nanoTime();
+      assertThatThrownBy(() -> flight.execute("C001", () -> "unused"))
+          .isInstanceOf(SingleFlightTimeoutException.class);
+      assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+
+      release.countDown();
+      assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Acme");
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(flight.inFlightCount()).isZero();
+    assertThat(
+            registry
+                .get("wataerp.singleflight.timeouts")
+                .tags("name", "test-timeout")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  private double coalesced(String name) {
+    return registry
+        .get("wataerp.singleflight.calls")
+        .tags("name", name, "result", "coalesced")
+        .counter()
+        .count();
+  }
+
+  // 条件を満たすまで待つ。合流の数え漏れなどで満たさないときは、待ち続けずに失敗させる
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("5秒待っても条件を満たさなかった");
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
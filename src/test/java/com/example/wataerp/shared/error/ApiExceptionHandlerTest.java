@@ -1,11 +1,17 @@
 package com.example.wataerp.shared.error;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
@@ -36,6 +42,20 @@ import org.springframework.test.web.servlet.MockMvc;
 class ApiExceptionHandlerTest {
   @Autowired MockMvc mvc;
 
+  // 本番では Spring Boot のレジストリがグローバルレジストリに登録される
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void addRegistry() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void removeRegistry() {
+    Metrics.removeRegistry(registry);
+    registry.close();
+  }
+
   /** 404エラー原因切り分け用最小テスト */
   @Test
   void minTest() throws Exception {
@@ -103,6 +123,69 @@ class ApiExceptionHandlerTest {
         .andExpect(jsonPath("$.message", containsString("conflict")));
   }
 
+  /** コネクションプールの空き待ちタイムアウト → 503 */
+  @Test
+  void handleNoConnection_returns503() throws Exception {
+    mvc.perform(get("/test/no-connection"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().exists("X-Correlation-Id"))
+        .andExpect(jsonPath("$.message", containsString("混雑しています")));
+  }
+
+  /** 実行中の同じ参照に合流したが待ちきれなかった → 503 + Retry-After */
+  @Test
+  void handleSingleFlightTimeout_returns503WithRetryAfter() throws Exception {
+    mvc.perform(get("/test/single-flight-timeout"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.status").value(503))
+        .andExpect(jsonPath("$.message", containsString("混雑しています")));
+  }
+
+  /** DBに接続できない → 503（混雑とは区別する） */
+  @Test
+  void handleNoConnection_databaseDown_notReportedAsBusy() throws Exception {
+    mvc.perform(get("/test/db-down"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.message", containsString("データベースに接続できません")))
+        .andExpect(jsonPath("$.message", not(containsString("混雑"))));
+  }
+
+  /** 適応的な同時実行数の上限で断った → 503 + Retry-After */
+  @Test
+  void handleConcurrencyLimit_returns503WithRetryAfter() throws Exception {
+    mvc.perform(get("/test/concurrency-limit"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.status").value(503))
+        .andExpect(jsonPath("$.message", containsString("混雑しています")));
+  }
+
+  /** エラー件数をステータス・例外ごとに数える */
+  @Test
+  void errorsAreCountedByStatusAndException() throws Exception {
+    mvc.perform(get("/test/no-connection")).andExpect(status().isServiceUnavailable());
+    mvc.perform(get("/test/no-connection")).andExpect(status().isServiceUnavailable());
+
+    assertThat(
+            registry
+                .get(ApiExceptionHandler.ERRORS_METRIC)
+                .tag("status", "503")
+                .tag("outcome", "SERVER_ERROR")
+                .tag("exception", "CannotGetJdbcConnectionException")
+                .counter()
+                .count())
+        .isEqualTo(2.0);
+  }
+
+  /** 楽観ロック失敗 → 409 */
+  @Test
+  void handleOptimisticLock_returns409() throws Exception {
+    mvc.perform(get("/test/optimistic-lock"))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.message", containsString("他の利用者が先に更新しました")));
+  }
+
   /** 想定外例外 → 500 */
   @Test
   void handleOthers_returns500() throws Exception {
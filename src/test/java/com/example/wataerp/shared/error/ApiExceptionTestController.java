@@ -1,11 +1,19 @@
 package com.example.wataerp.shared.error;
 
+import com.example.wataerp.shared.admission.ConcurrencyLimitExceededException;
+import com.example.wataerp.shared.concurrent.SingleFlightTimeoutException;
 import com.example.wataerp.shared.error.ApiExceptionHandlerTest.AmountReq;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -52,6 +60,44 @@ public class ApiExceptionTestController {
     throw new ResponseStatusException(HttpStatus.CONFLICT, "conflict!");
   }
 
+  // コネクションプールの空き待ちタイムアウト
+  @GetMapping("/no-connection")
+  void noConnection() {
+    throw new CannotGetJdbcConnectionException(
+        "Failed to obtain JDBC Connection",
+        new SQLTransientConnectionException(
+            "wataerp - Connection is not available, request timed out after 3000ms."));
+  }
+
+  // DBに接続できない（Hikari は最後の接続失敗を cause に付けてタイムアウトする）
+  @GetMapping("/db-down")
+  void dbDown() {
+    throw new CannotCreateTransactionException(
+        "Could not open JPA EntityManager for transaction",
+        new SQLTransientConnectionException(
+            "wataerp - Connection is not available, request timed out after 3000ms.",
+            "08001",
+            new SQLException("Connection refused", "08001")));
+  }
+
+  // 同時実行数の上限で断った
+  @GetMapping("/concurrency-limit")
+  void concurrencyLimit() {
+    throw new ConcurrencyLimitExceededException(4);
+  }
+
+  // 実行中の同じ参照を待ちきれなかった
+  @GetMapping("/single-flight-timeout")
+  void singleFlightTimeout() {
+    throw new SingleFlightTimeoutException("customer", Duration.ofSeconds(3));
+  }
+
+  // 楽観ロック失敗
+  @GetMapping("/optimistic-lock")
+  void optimisticLock() {
+    throw new OptimisticLockingFailureException("Row was updated by another transaction");
+  }
+
   // 想定外エラー
   @GetMapping("/boom")
   void boom() {
@@ -0,0 +1,191 @@
+package com.example.wataerp.shared.error.filter;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.wataerp.config.AdmissionProperties;
+import com.example.wataerp.shared.error.ApiExceptionHandler;
+import com.example.wataerp.shared.filter.AdmissionControlFilter;
+import com.example.wataerp.shared.filter.CorrelationIdFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.*;
+
+class AdmissionControlFilterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CountDownLatch entered = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private MockMvc mvc;
+
+  @RestController
+  @RequestMapping("/api/v1/customers")
+  class CustomerStubController {
+
+    @GetMapping("/search")
+    String search(@RequestParam(defaultValue = "false") boolean block) throws InterruptedException {
+      if (block) {
+        entered.countDown();
+        release.await(5, TimeUnit.SECONDS);
+      }
+      return "[]";
+    }
+
+    @GetMapping("/export/csv")
+    String csv(@RequestParam(defaultValue = "false") boolean block) throws InterruptedException {
+      return search(block);
+    }
+
+    @GetMapping("/{code}")
+    String one(@PathVariable String code) {
+      return code;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    AdmissionProperties properties = new AdmissionProperties();
+    properties.getList().setRate(1);
+    properties.getList().setBurst(2);
+    properties.getList().setConcurrency(1);
+    properties.getExport().setConcurrency(1);
+    mvc =
+        MockMvcBuilders.standaloneSetup(new CustomerStubController())
+            .addFilters(
+                new CorrelationIdFilter(),
+                new AdmissionControlFilter(properties, new ObjectMapper(), meterRegistry))
+            .build();
+  }
+
+  @Test
+  @DisplayName("クライアントごとの上限を超えたら 429 と Retry-After を ApiError 形式で返す")
+  void rateLimited_returns429() throws Exception {
+    mvc.perform(get("/api/v1/customers/search").with(client("noisy"))).andExpect(status().isOk());
+    mvc.perform(get("/api/v1/customers/search").with(client("noisy"))).andExpect(status().isOk());
+
+    mvc.perform(get("/api/v1/customers/search").with(client("noisy")))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+        .andExpect(jsonPath("$.status").value(429))
+        .andExpect(jsonPath("$.path").value("/api/v1/customers/search"))
+        .andExpect(jsonPath("$.correlationId", notNullValue()));
+
+    // 別のクライアント・別の分類（1件の参照）は影響を受けない
+    mvc.perform(get("/api/v1/customers/search").with(client("other"))).andExpect(status().isOk());
+    mvc.perform(get("/api/v1/customers/C001").with(client("noisy"))).andExpect(status().isOk());
+
+    assertThat(
+            meterRegistry
+                .get(AdmissionControlFilter.REJECTED_METRIC)
+                .tags("endpoint", "list", "reason", "rate_limit")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+    assertThat(
+            meterRegistry
+                .get(ApiExceptionHandler.ERRORS_METRIC)
+                .tags("status", "429", "outcome", "CLIENT_ERROR")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("クライアントは認証済みユーザー・接続元アドレスで見分け、任意のヘッダでは別クライアントにならない")
+  void clientKey_principalOrRemoteAddress_notHeader() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      mvc.perform(get("/api/v1/customers/search").with(client("noisy")).header("X-Client-Id", i))
+          .andExpect(status().isOk());
+    }
+    mvc.perform(get("/api/v1/customers/search").with(client("noisy")).header("X-Client-Id", "new"))
+        .andExpect(status().isTooManyRequests());
+
+    // 同じアドレスからでも、認証済みのユーザーはユーザーごとに数える
+    mvc.perform(get("/api/v1/customers/search").with(client("noisy")).principal(() -> "alice"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("分類ごとの同時実行数を超えたら待たずに 429。1件の参照は別枠で通る")
+  void bulkheadFull_returns429() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> blocking =
+          executor.submit(
+              () -> mvc.perform(get("/api/v1/customers/search?block=true").with(client("a"))));
+      assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+      mvc.perform(get("/api/v1/customers/search").with(client("b")))
+          .andExpect(status().isTooManyRequests())
+          .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+      mvc.perform(get("/api/v1/customers/C001").with(client("b"))).andExpect(status().isOk());
+
+      release.countDown();
+      blocking.get(5, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+
+    // 枠が空けば通る。枠が無くて断られたクライアント b の流量（burst=2）は減っていない
+    mvc.perform(get("/api/v1/customers/search").with(client("b"))).andExpect(status().isOk());
+    mvc.perform(get("/api/v1/customers/search").with(client("b"))).andExpect(status().isOk());
+    assertThat(
+            meterRegistry
+                .get(AdmissionControlFilter.REJECTED_METRIC)
+                .tags("endpoint", "list", "reason", "bulkhead")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("ダウンロードは一覧・検索と別枠で、ダウンロードが枠を使い切っても検索は通る")
+  void exportBulkhead_separateFromList() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> blocking =
+          executor.submit(
+              () -> mvc.perform(get("/api/v1/customers/export/csv?block=true").with(client("a"))));
+      assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+      mvc.perform(get("/api/v1/customers/export/csv").with(client("b")))
+          .andExpect(status().isTooManyRequests());
+      mvc.perform(get("/api/v1/customers/search").with(client("b"))).andExpect(status().isOk());
+
+      release.countDown();
+      blocking.get(5, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+    assertThat(
+            meterRegistry
+                .get(AdmissionControlFilter.REJECTED_METRIC)
+                .tags("endpoint", "export", "reason", "bulkhead")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  private static RequestPostProcessor client(String host) {
+    return request -> {
+      request.setRemoteAddr(host);
+      return request;
+    };
+  }
+}
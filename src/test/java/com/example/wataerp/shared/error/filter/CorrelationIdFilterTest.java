@@ -1,3 +1,4 @@
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -43,4 +44,34 @@ class CorrelationIdFilterStandaloneTest {
         .andExpect(status().isOk())
         .andExpect(header().string(CorrelationIdFilter.HEADER_NAME, "cid-123"));
   }
+
+  @Test
+  void generatesUlidWhenHeaderIsBlank() throws Exception {
+    mvc.perform(get("/test/ping").header(CorrelationIdFilter.HEADER_NAME, " "))
+        .andExpect(status().isOk())
+        .andExpect(
+            header()
+                .string(CorrelationIdFilter.HEADER_NAME, matchesPattern("[0-9A-HJKMNP-TV-Z]{26}")));
+  }
+
+  @Test
+  void replacesCorrelationIdWithInvalidCharacters() throws Exception {
+    mvc.perform(get("/test/ping").header(CorrelationIdFilter.HEADER_NAME, "cid 1\r\nX-Evil: 1"))
+        .andExpect(status().isOk())
+        .andExpect(
+            header()
+                .string(CorrelationIdFilter.HEADER_NAME, matchesPattern("[0-9A-HJKMNP-TV-Z]{26}")));
+  }
+
+  @Test
+  void replacesCorrelationIdLongerThan64() throws Exception {
+    mvc.perform(get("/test/ping").header(CorrelationIdFilter.HEADER_NAME, "a".repeat(65)))
+        .andExpect(status().isOk())
+        .andExpect(
+            header()
+                .string(CorrelationIdFilter.HEADER_NAME, matchesPattern("[0-9A-HJKMNP-TV-Z]{26}")));
+    mvc.perform(get("/test/ping").header(CorrelationIdFilter.HEADER_NAME, "a".repeat(64)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(CorrelationIdFilter.HEADER_NAME, "a".repeat(64)));
+  }
 }
@@ -0,0 +1,150 @@
+package com.example.wataerp.shared.error.filter;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.wataerp.config.SqlStatsProperties;
+import com.example.wataerp.shared.filter.CorrelationIdFilter;
+import com.example.wataerp.shared.filter.SqlStatsFilter;
+import com.example.wataerp.shared.sql.SqlBudget;
+import com.example.wataerp.shared.sql.SqlStats;
+import com.example.wataerp.shared.sql.SqlStatsDataSource;
+import com.example.wataerp.shared.sql.SqlStatsRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.*;
+
+class SqlStatsFilterTest {
+
+  private final SqlStatsRegistry registry = new SqlStatsRegistry();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private JdbcTemplate jdbc;
+  private MockMvc mvc;
+
+  @RestController
+  @RequestMapping("/test")
+  static class ItemController {
+
+    private final JdbcTemplate jdbc;
+
+    ItemController(JdbcTemplate jdbc) {
+      this.jdbc = jdbc;
+    }
+
+    @GetMapping("/items")
+    List<String> items() {
+      return jdbc.queryForList("SELECT code FROM item ORDER BY code", String.class);
+    }
+
+    // 1件ずつ引き直す（N+1 の再現）
+    @GetMapping("/items/one-by-one")
+    List<String> oneByOne() {
+      for (int i = 0; i < 5; i++) {
+        jdbc.queryForObject("SELECT code FROM item WHERE code = ?", String.class, "A");
+      }
+      return List.of("A");
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    jdbc =
+        new JdbcTemplate(
+            new SqlStatsDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:sqlstatsfilter;DB_CLOSE_DELAY=-1"),
+                registry));
+    jdbc.execute("DROP TABLE IF EXISTS item");
+    jdbc.execute("CREATE TABLE item (code varchar(8) PRIMARY KEY)");
+    jdbc.execute("INSERT INTO item (code) VALUES ('A'), ('B')");
+
+    SqlStatsProperties properties = new SqlStatsProperties();
+    properties.setResponseHeaders(true);
+    properties.setCountRows(true);
+    mvc = mvc(properties);
+  }
+
+  @Test
+  @DisplayName("集計をレスポンスヘッダに返し、URIパターンごとのメトリクスに記録する")
+  void writesHeadersAndMetrics() throws Exception {
+    mvc.perform(get("/test/items"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(SqlStatsFilter.STATEMENTS_HEADER, "1"))
+        .andExpect(header().string(SqlStatsFilter.ROWS_HEADER, "2"))
+        .andExpect(header().exists(SqlStatsFilter.TIME_HEADER))
+        .andExpect(SqlBudget.statementsAtMost(1));
+
+    double statements =
+        meterRegistry
+            .get("wataerp.sql.statements")
+            .tag("uri", "/test/items")
+            .summary()
+            .totalAmount();
+    assertThat(statements).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("同じSQLの繰り返しは N+1 の疑いとして数え、本数の上限を超えれば失敗する")
+  void repeatedStatements_areCounted() throws Exception {
+    assertThatThrownBy(
+            () ->
+                mvc.perform(get("/test/items/one-by-one"))
+                    .andExpect(SqlBudget.statementsAtMost(2)))
+        .isInstanceOf(AssertionError.class);
+
+    double repeated =
+        meterRegistry
+            .get("wataerp.sql.repeated")
+            .tag("uri", "/test/items/one-by-one")
+            .counter()
+            .count();
+    assertThat(repeated).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("集計はサーバーが採番した計測IDで引き、クライアントの correlationId が他と重なっても混ざらない")
+  void measuresByServerToken_notCorrelationId() throws Exception {
+    SqlStats other = registry.start("dup");
+    try {
+      mvc.perform(get("/test/items").header(CorrelationIdFilter.HEADER_NAME, "dup"))
+          .andExpect(status().isOk())
+          .andExpect(header().string(SqlStatsFilter.STATEMENTS_HEADER, "1"));
+    } finally {
+      registry.finish("dup", other);
+    }
+
+    assertThat(other.getStatements()).isZero();
+  }
+
+  @Test
+  @DisplayName("行数を数えない設定（本番の既定）でも、文の数とDB時間はメトリクスに記録する")
+  void countRowsDisabled_recordsStatementsAndTimeOnly() throws Exception {
+    SqlStatsProperties properties = new SqlStatsProperties();
+    properties.setResponseHeaders(true);
+
+    mvc(properties)
+        .perform(get("/test/items"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(SqlStatsFilter.STATEMENTS_HEADER, "1"))
+        .andExpect(header().doesNotExist(SqlStatsFilter.ROWS_HEADER))
+        .andExpect(header().exists(SqlStatsFilter.TIME_HEADER));
+
+    assertThat(meterRegistry.get("wataerp.sql.statements").summary().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("wataerp.sql.time").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.find("wataerp.sql.rows").summary()).isNull();
+  }
+
+  private MockMvc mvc(SqlStatsProperties properties) {
+    return MockMvcBuilders.standaloneSetup(new ItemController(jdbc))
+        .addFilters(
+            new CorrelationIdFilter(), new SqlStatsFilter(registry, properties, meterRegistry))
+        .build();
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.wataerp.shared.id;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UlidTest {
+
+  @Test
+  @DisplayName("26文字の Crockford Base32 で、先頭に採番時刻が入る")
+  void next_isCrockfordBase32WithTimestamp() {
+    long before = System.currentTimeMillis();
+    String ulid = Ulid.next();
+    long after = System.currentTimeMillis();
+
+    assertThat(ulid).hasSize(Ulid.LENGTH).matches("[0-9A-HJKMNP-TV-Z]{26}");
+    assertThat(Ulid.timestampMillis(ulid)).isBetween(before, after);
+  }
+
+  @Test
+  @DisplayName("時刻が進めば文字列の並びも後ろになる（乱数部分によらない）")
+  void of_sortsByTime() {
+    String earlier = Ulid.of(1_700_000_000_000L, -1L, -1L);
+    String later = Ulid.of(1_700_000_000_001L, 0L, 0L);
+
+    assertThat(earlier).isLessThan(later);
+    assertThat(Ulid.timestampMillis(earlier)).isEqualTo(1_700_000_000_000L);
+  }
+
+  @Test
+  @DisplayName("同じミリ秒に大量に採番しても重複しない")
+  void next_isUnique() {
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 100_000; i++) {
+      ids.add(Ulid.next());
+    }
+
+    assertThat(ids).hasSize(100_000);
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.wataerp.shared.id;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UuidV7Test {
+
+  @Test
+  @DisplayName("next - version 7 / variant 2 で、先頭48ビットが現在時刻（ミリ秒）")
+  void next_layout() {
+    long before = System.currentTimeMillis();
+    UUID id = UuidV7.next();
+    long after = System.currentTimeMillis();
+
+    assertThat(id.version()).isEqualTo(7);
+    assertThat(id.variant()).isEqualTo(2);
+    // 同一ミリ秒内の溢れで実時間より少し先へ進むことはある
+    assertThat(UuidV7.timestampMillis(id)).isBetween(before, after + 1);
+  }
+
+  @Test
+  @DisplayName("next - 連続して採番すると同じミリ秒内でも必ず大きくなる")
+  void next_isMonotonic() {
+    UUID prev = UuidV7.next();
+    for (int i = 0; i < 100_000; i++) {
+      UUID id = UuidV7.next();
+      assertThat(compareUnsigned(id, prev)).isPositive();
+      prev = id;
+    }
+  }
+
+  @Test
+  @DisplayName("nextState - 時計が戻っても前回より大きい値を返す")
+  void nextState_clockGoesBackwards() {
+    long now = System.currentTimeMillis();
+    long first = UuidV7.nextState(now);
+    long second = UuidV7.nextState(now - 1_000);
+
+    assertThat(second).isEqualTo(first + 1);
+  }
+
+  @Test
+  @DisplayName("next - 複数スレッドから同時に採番しても重複せず、スレッドごとには単調増加")
+  void next_concurrent() throws Exception {
+    Set<UUID> all = ConcurrentHashMap.newKeySet();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        results.add(
+            pool.submit(
+                () -> {
+                  UUID prev = UuidV7.next();
+                  all.add(prev);
+                  boolean ordered = true;
+                  for (int i = 0; i < 20_000; i++) {
+                    UUID id = UuidV7.next();
+                    ordered &= compareUnsigned(id, prev) > 0;
+                    all.add(id);
+                    prev = id;
+                  }
+                  return ordered;
+                }));
+      }
+      for (Future<Boolean> result : results) {
+        assertThat(result.get()).isTrue();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertThat(all).hasSize(8 * 20_001);
+  }
+
+  // PostgreSQL の uuid 型と同じく、符号なし128ビットとして比べる（UUID#compareTo は符号付き）
+  private static int compareUnsigned(UUID a, UUID b) {
+    int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return cmp != 0
+        ? cmp
+        : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.wataerp.shared.sql;
+
+import com.example.wataerp.shared.filter.SqlStatsFilter;
+import java.util.UUID;
+import org.slf4j.MDC;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * テストで「この処理・エンドポイントはSQL n 本以内」を確かめるためのヘルパー。
+ *
+ * <pre>{@code
+ * SqlStats stats = SqlBudget.measure(registry, () -> service.getCustomers(codes));
+ * SqlBudget.assertStatementsAtMost(stats, 1);
+ *
+ * mvc.perform(get("/api/v1/customers")).andExpect(SqlBudget.statementsAtMost(1));
+ * }</pre>
+ */
+public final class SqlBudget {
+
+  private SqlBudget() {}
+
+  /** action の中で実行したSQLを数える（計測IDを一時的に MDC に入れる） */
+  public static SqlStats measure(SqlStatsRegistry registry, Runnable action) {
+    String previous = MDC.get(SqlStatsRegistry.MDC_KEY);
+    String key = "sql-budget-" + UUID.randomUUID();
+    MDC.put(SqlStatsRegistry.MDC_KEY, key);
+    SqlStats stats = registry.start(key);
+    try {
+      action.run();
+    } finally {
+      registry.finish(key, stats);
+      if (previous != null) {
+        MDC.put(SqlStatsRegistry.MDC_KEY, previous);
+      } else {
+        MDC.remove(SqlStatsRegistry.MDC_KEY);
+      }
+    }
+    return stats;
+  }
+
+  public static void assertStatementsAtMost(SqlStats stats, int max) {
+    if (stats.getStatements() > max) {
+      throw new AssertionError(
+          "SQLの本数が上限を超えました: "
+              + stats.getStatements()
+              + " > "
+              + max
+              + " "
+              + stats.getStatementCounts());
+    }
+  }
+
+  /** MockMvc 用。wataerp.sql-stats.response-headers=true で X-Sql-Statements が max 以下であること */
+  public static ResultMatcher statementsAtMost(int max) {
+    return result -> {
+      String header = result.getResponse().getHeader(SqlStatsFilter.STATEMENTS_HEADER);
+      if (header == null) {
+        throw new AssertionError(
+            SqlStatsFilter.STATEMENTS_HEADER + " がありません（response-headers が無効）");
+      }
+      long statements = Long.parseLong(header);
+      if (statements > max) {
+        throw new AssertionError("SQLの本数が上限を超えました: " + statements + " > " + max);
+      }
+    };
+  }
+}
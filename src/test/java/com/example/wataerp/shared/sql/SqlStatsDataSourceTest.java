@@ -0,0 +1,146 @@
+package com.example.wataerp.shared.sql;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class SqlStatsDataSourceTest {
+
+  private final SqlStatsRegistry registry = new SqlStatsRegistry();
+  private SqlStatsDataSource dataSource;
+  private JdbcTemplate jdbc;
+
+  @BeforeEach
+  void setup() {
+    dataSource =
+        new SqlStatsDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1"), registry);
+    jdbc = new JdbcTemplate(dataSource);
+    jdbc.execute("DROP TABLE IF EXISTS item");
+    jdbc.execute("CREATE TABLE item (code varchar(8) PRIMARY KEY, name varchar(32))");
+  }
+
+  @Test
+  @DisplayName("計測中は文の数・行数・SQL文ごとの回数を数える（JDBCバッチは1文）")
+  void countsStatementsAndRows() {
+    SqlStats stats =
+        SqlBudget.measure(
+            registry,
+            () -> {
+              jdbc.batchUpdate(
+                  "INSERT INTO item (code, name) VALUES (?, ?)",
+                  List.of(
+                      new Object[] {"A", "a"}, new Object[] {"B", "b"}, new Object[] {"C", "c"}));
+              jdbc.queryForList("SELECT code FROM item ORDER BY code", String.class);
+            });
+
+    assertThat(stats.getStatements()).isEqualTo(2);
+    // 挿入3行 + 読み込み3行
+    assertThat(stats.getRows()).isEqualTo(6);
+    assertThat(stats.getStatementCounts())
+        .containsEntry("SELECT code FROM item ORDER BY code", 1L)
+        .containsEntry("INSERT INTO item (code, name) VALUES (?, ?)", 1L);
+    SqlBudget.assertStatementsAtMost(stats, 2);
+  }
+
+  @Test
+  @DisplayName("行数を数えない設定なら、文の数と時間だけを数えて結果セットは包まない")
+  void countRowsDisabled_countsStatementsOnly() {
+    JdbcTemplate statementsOnly =
+        new JdbcTemplate(
+            new SqlStatsDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1"),
+                registry,
+                null,
+                false));
+    jdbc.update("INSERT INTO item (code, name) VALUES ('A', 'a'), ('B', 'b')");
+    boolean[] wrapped = new boolean[1];
+
+    SqlStats stats =
+        SqlBudget.measure(
+            registry,
+            () ->
+                statementsOnly.query(
+                    "SELECT code FROM item",
+                    rs -> {
+                      wrapped[0] = Proxy.isProxyClass(rs.getClass());
+                      while (rs.next()) {}
+                      return null;
+                    }));
+
+    assertThat(stats.getStatements()).isEqualTo(1);
+    assertThat(stats.getRows()).isZero();
+    assertThat(wrapped[0]).isFalse();
+  }
+
+  @Test
+  @DisplayName("同じSQL文の繰り返し（N+1）を検出でき、予算超過はテスト失敗になる")
+  void detectsRepeatedStatements() {
+    jdbc.update("INSERT INTO item (code, name) VALUES ('A', 'a')");
+    SqlStats stats =
+        SqlBudget.measure(
+            registry,
+            () -> {
+              for (int i = 0; i < 5; i++) {
+                jdbc.queryForObject("SELECT name FROM item WHERE code = ?", String.class, "A");
+              }
+            });
+
+    assertThat(stats.getRepeatedStatements(5))
+        .containsExactly(entry("SELECT name FROM item WHERE code = ?", 5L));
+    assertThatThrownBy(() -> SqlBudget.assertStatementsAtMost(stats, 1))
+        .isInstanceOf(AssertionError.class)
+        .hasMessageContaining("5 > 1");
+  }
+
+  @Test
+  @DisplayName("計測中でなければ数えない")
+  void notMeasured_isIgnored() {
+    SqlStats stats = SqlBudget.measure(registry, () -> {});
+    jdbc.queryForList("SELECT code FROM item", String.class);
+
+    assertThat(stats.getStatements()).isZero();
+    assertThat(registry.current()).isNull();
+  }
+
+  @Test
+  @DisplayName("遅いSQLのログが有効なら、計測中でなくても閾値以上のSQLを数える")
+  void slowSql_isCountedOutsideRequests() {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    Metrics.addRegistry(meters);
+    try {
+      JdbcTemplate slowJdbc =
+          new JdbcTemplate(
+              new SqlStatsDataSource(
+                  new DriverManagerDataSource("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1"),
+                  registry,
+                  new SlowSqlLog(Duration.ofNanos(1), 1.0)));
+      slowJdbc.queryForList("SELECT code FROM item", String.class);
+
+      assertThat(meters.get("wataerp.sql.slow").counter().count()).isEqualTo(1.0);
+      assertThat(registry.current()).isNull();
+    } finally {
+      Metrics.removeRegistry(meters);
+    }
+  }
+
+  @Test
+  @DisplayName("unwrap でドライバのコネクションを取り出せる（COPY 用）")
+  void unwrap_returnsDriverConnection() throws Exception {
+    try (Connection con = dataSource.getConnection()) {
+      assertThat(con.unwrap(JdbcConnection.class)).isNotNull();
+      assertThat(con).isEqualTo(con).isNotEqualTo(con.unwrap(JdbcConnection.class));
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.wataerp.shared.sql;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SqlTextTest {
+
+  @Test
+  @DisplayName("改行・連続する空白を1個の空白に詰める")
+  void collapsesWhitespace() {
+    String sql =
+        """
+
+            select
+                c1_0.code,
+                c1_0.company_name
+            from
+                customer_master c1_0
+        """;
+
+    assertThat(SqlText.compact(sql))
+        .isEqualTo("select c1_0.code, c1_0.company_name from customer_master c1_0");
+  }
+
+  @Test
+  @DisplayName("文字列・数値のリテラルは伏せ、識別子の中の数字とプレースホルダは残す")
+  void redactsLiterals() {
+    String sql =
+        "SELECT code FROM customer_master WHERE tax_code = 'T1' AND company_name = 'it''s'"
+            + " AND credit_limit > 1000.50 AND code = ? LIMIT 10";
+
+    assertThat(SqlText.compact(sql))
+        .isEqualTo(
+            "SELECT code FROM customer_master WHERE tax_code = ? AND company_name = ?"
+                + " AND credit_limit > ? AND code = ? LIMIT ?");
+    assertThat(SqlText.compact("SET LOCAL statement_timeout = 500"))
+        .isEqualTo("SET LOCAL statement_timeout = ?");
+  }
+
+  @Test
+  @DisplayName("長すぎるSQLは上限で切る")
+  void truncatesLongSql() {
+    String compact = SqlText.compact("SELECT " + "x, ".repeat(SqlText.MAX_LENGTH) + "y FROM t");
+
+    assertThat(compact).hasSize(SqlText.MAX_LENGTH + 1).endsWith("…");
+  }
+}